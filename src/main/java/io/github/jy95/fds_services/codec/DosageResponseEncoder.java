@@ -0,0 +1,210 @@
+package io.github.jy95.fds_services.codec;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.dto.LocalizedDto;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes {@link DosageResponseDto} as JSON straight into the response {@link DataBuffer}, field by field.
+ * <p>
+ * The output is the same as Jackson's, but items skip the bean serializer, and the JSON is not first written
+ * into an intermediate byte array then copied into the buffer. Issues are few : they still go through the
+ * {@link ObjectMapper}, so that {@link ProblemDetail} keeps its usual shape.
+ * <p>
+ * Only the encoding allocates less : the response is still built in full before it is written, since the result
+ * cache and the coalescing of identical requests store, share and merge whole responses.
+ * <p>
+ * The fields are written by hand : if Jackson sees other properties on the DTOs than the ones written here
+ * (e.g. a field was added), the encoder steps aside and Jackson writes the responses, so nothing is dropped.
+ */
+@Slf4j
+public class DosageResponseEncoder implements Encoder<DosageResponseDto> {
+
+    private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_JSON);
+
+    /**
+     * Bytes reserved per item up front, so that the buffer seldom has to grow
+     */
+    private static final int ITEM_SIZE_HINT = 128;
+
+    /**
+     * Properties written by hand, per DTO
+     */
+    public static final Map<Class<?>, Set<String>> WRITTEN_PROPERTIES = Map.of(
+            DosageResponseDto.class, Set.of("items", "issues"),
+            LocalizedDto.class, Set.of("translations")
+    );
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Whether the DTOs have exactly the properties written by hand
+     */
+    private final boolean upToDate;
+
+    public DosageResponseEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.upToDate = WRITTEN_PROPERTIES
+                .entrySet()
+                .stream()
+                .allMatch(entry -> entry.getValue().equals(serializedProperties(objectMapper, entry.getKey())));
+        if (!upToDate) {
+            log.warn("DosageResponseEncoder does not write every property of the response DTOs, Jackson writes them instead");
+        }
+    }
+
+    /**
+     * Names of the properties Jackson would write for that type.
+     */
+    public static Set<String> serializedProperties(ObjectMapper objectMapper, Class<?> type) {
+        try {
+            Set<String> names = new HashSet<>();
+            objectMapper
+                    .getSerializerProviderInstance()
+                    .findValueSerializer(type)
+                    .properties()
+                    .forEachRemaining(property -> names.add(property.getName()));
+            return names;
+        } catch (JsonMappingException e) {
+            throw new IllegalStateException("No serializer for " + type, e);
+        }
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return upToDate
+                && DosageResponseDto.class.isAssignableFrom(elementType.toClass())
+                && (mimeType == null || MIME_TYPES.stream().anyMatch(type -> type.isCompatibleWith(mimeType)));
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(
+            Publisher<? extends DosageResponseDto> inputStream,
+            DataBufferFactory bufferFactory,
+            ResolvableType elementType,
+            MimeType mimeType,
+            Map<String, Object> hints
+    ) {
+        if (inputStream instanceof Mono<? extends DosageResponseDto> mono) {
+            return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+        // Several responses make a JSON array, as with Jackson
+        return Flux.from(inputStream)
+                .collectList()
+                .map(values -> write(bufferFactory, values.size(), generator -> {
+                    generator.writeStartArray();
+                    for (DosageResponseDto value : values) {
+                        writeResponse(generator, value);
+                    }
+                    generator.writeEndArray();
+                }))
+                .flux();
+    }
+
+    @Override
+    public DataBuffer encodeValue(
+            DosageResponseDto value,
+            DataBufferFactory bufferFactory,
+            ResolvableType valueType,
+            MimeType mimeType,
+            Map<String, Object> hints
+    ) {
+        int items = value.getItems() != null ? value.getItems().size() : 0;
+        return write(bufferFactory, items, generator -> writeResponse(generator, value));
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    private DataBuffer write(DataBufferFactory bufferFactory, int items, JsonWriter writer) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(ITEM_SIZE_HINT * Math.max(1, items));
+        try {
+            try (JsonGenerator generator = objectMapper.createGenerator(buffer.asOutputStream(), JsonEncoding.UTF8)) {
+                writer.write(generator);
+            }
+            return buffer;
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new EncodingException("JSON encoding error: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    private void writeResponse(JsonGenerator generator, DosageResponseDto value) throws IOException {
+        generator.writeStartObject();
+
+        generator.writeFieldName("items");
+        if (value.getItems() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartArray();
+            for (LocalizedDto item : value.getItems()) {
+                writeItem(generator, item);
+            }
+            generator.writeEndArray();
+        }
+
+        generator.writeFieldName("issues");
+        if (value.getIssues() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartArray();
+            for (ProblemDetail issue : value.getIssues()) {
+                objectMapper.writeValue(generator, issue);
+            }
+            generator.writeEndArray();
+        }
+
+        generator.writeEndObject();
+    }
+
+    private static void writeItem(JsonGenerator generator, LocalizedDto item) throws IOException {
+        if (item == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeFieldName("translations");
+        if (item.getTranslations() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartObject();
+            for (Map.Entry<String, String> translation : item.getTranslations().entrySet()) {
+                generator.writeStringField(translation.getKey(), translation.getValue());
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    @FunctionalInterface
+    private interface JsonWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
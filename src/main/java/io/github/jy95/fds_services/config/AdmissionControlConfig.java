@@ -0,0 +1,19 @@
+package io.github.jy95.fds_services.config;
+
+import io.github.jy95.fds_services.utility.AimdLimit;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A single admission limit for every transport : REST and gRPC requests compete for the same slots.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfig {
+
+    @Bean
+    public AimdLimit admissionLimit(AdmissionControlProperties properties) {
+        return properties.newLimit();
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.jy95.fds_services.config;
+
+import io.github.jy95.fds_services.utility.AimdLimit;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Adaptive limit on the requests processed at once (see {@code AdmissionControlFilter} and {@code AdmissionControlInterceptor}).
+ */
+@Data
+@ConfigurationProperties(prefix = "fds.admission")
+public class AdmissionControlProperties {
+
+    /**
+     * Whether requests over the limit are rejected at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Path prefixes subject to admission control (anything else, such as /health, is always let through).
+     */
+    private List<String> paths = List.of("/r4/", "/r5/");
+
+    /**
+     * Limit used until enough latency has been observed.
+     */
+    private int initialLimit = 64;
+
+    /**
+     * The limit never goes below this value.
+     */
+    private int minLimit = 8;
+
+    /**
+     * The limit never goes above this value.
+     */
+    private int maxLimit = 1024;
+
+    /**
+     * Requests slower than this are treated as a sign of overload.
+     */
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    /**
+     * Factor applied to the limit on overload (multiplicative decrease).
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Value of the Retry-After header of rejected requests (rounded up to the second).
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * A new limit, starting from these settings
+     */
+    public AimdLimit newLimit() {
+        return new AimdLimit(initialLimit, minLimit, maxLimit, backoffRatio, latencyThreshold.toNanos());
+    }
+
+    /**
+     * Retry-After only accepts whole seconds
+     */
+    public String retryAfterHeader() {
+        return String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.jy95.fds_services.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Processing of the batch endpoints.
+ */
+@Data
+@ConfigurationProperties(prefix = "fds.batch")
+public class BatchProperties {
+
+    /**
+     * Maximum number of entries of a batch processed at once.
+     */
+    private int concurrency = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * Maximum number of entries of a batch, beyond which it is rejected as a whole
+     * (a batch only takes one admission control slot).
+     */
+    private int maxEntries = 100;
+}
@@ -0,0 +1,105 @@
+package io.github.jy95.fds_services.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.github.jy95.fds_services.generator.DosageApiKey;
+import io.github.jy95.fds_services.generator.TranslationResultKey;
+import io.github.jy95.fds_services.service.CachedTranslations;
+import io.github.jy95.fds_services.service.OffHeapTranslationStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounded cache backends.
+ * Caffeine evicts by weight, using a frequency-aware admission policy (W-TinyLFU),
+ * so that one-off keys (random separators, display order permutations, ...) cannot push out the hot ones.
+ */
+@Configuration
+@EnableConfigurationProperties({ResolverCacheProperties.class, ResultCacheProperties.class})
+public class CacheConfig {
+
+    public static final String R4_CACHE = "dosageApiCacheR4";
+    public static final String R5_CACHE = "dosageApiCacheR5";
+    public static final String RESULT_CACHE = "translationResultCache";
+
+    @Bean
+    public CacheManager cacheManager(
+            ResolverCacheProperties resolverProperties,
+            ResultCacheProperties resultProperties,
+            OffHeapTranslationStore offHeapStore
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(R4_CACHE, resolverCache(resolverProperties).build());
+        cacheManager.registerCustomCache(R5_CACHE, resolverCache(resolverProperties).build());
+        cacheManager.registerCustomCache(RESULT_CACHE, resultCache(resultProperties, offHeapStore).build());
+        return cacheManager;
+    }
+
+    @Bean
+    public OffHeapTranslationStore offHeapTranslationStore(ResultCacheProperties properties) {
+        return new OffHeapTranslationStore(
+                properties.getOffHeapCapacity().toBytes(),
+                properties.getExpireAfterWrite()
+        );
+    }
+
+    private Caffeine<Object, Object> resolverCache(ResolverCacheProperties properties) {
+        long footprint = properties.getEstimatedFootprint().toBytes();
+        return Caffeine
+                .newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .weigher((key, value) -> estimateWeight((DosageApiKey) key, footprint))
+                .expireAfterAccess(properties.getExpireAfterAccess())
+                .recordStats();
+    }
+
+    private Caffeine<Object, Object> resultCache(ResultCacheProperties properties, OffHeapTranslationStore offHeapStore) {
+        long expireAfterWriteNanos = properties.getExpireAfterWrite().toNanos();
+        return Caffeine
+                .newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .weigher((key, value) -> estimateWeight(((CachedTranslations) value).translations()))
+                // Counted from the translation, not from the last move between the tiers
+                .expireAfter(Expiry.writing(
+                        (key, value) -> Duration.ofNanos(
+                                ((CachedTranslations) value).remainingNanos(System.nanoTime(), expireAfterWriteNanos)
+                        )
+                ))
+                // Entries pushed out by size (not expired ones) move to the off-heap tier
+                .evictionListener((key, value, cause) -> {
+                    if (cause == RemovalCause.SIZE && value != null) {
+                        offHeapStore.put((TranslationResultKey) key, (CachedTranslations) value);
+                    }
+                })
+                .recordStats();
+    }
+
+    /**
+     * Estimated footprint of a resolver, in bytes.
+     * The configuration stored inside the resolver grows with the key (separator, display orders).
+     */
+    private static int estimateWeight(DosageApiKey key, long footprint) {
+        long weight = footprint
+                + 2L * String.valueOf(key.getDisplaySeparator()).length()
+                + 4L * key.getDisplayOrders().size();
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Estimated footprint of cached translations, in bytes (key, strings and list overhead).
+     */
+    private static int estimateWeight(List<?> translations) {
+        long weight = 256;
+        for (Object translation : translations) {
+            weight += 48 + 2L * translation.toString().length();
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.jy95.fds_services.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jy95.fds_services.codec.DosageResponseEncoder;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Response bodies with a dedicated writer, ahead of the generic Jackson one.
+ */
+@Configuration
+public class CodecConfig {
+
+    @Bean
+    public CodecCustomizer dosageResponseCodec(ObjectMapper objectMapper) {
+        return configurer -> configurer.customCodecs().register(new DosageResponseEncoder(objectMapper));
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.jy95.fds_services.config;
+
+import io.github.jy95.fds_services.enum_.ExecutionMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Execution model of the translation pipeline, chosen at startup.
+ */
+@Data
+@ConfigurationProperties(prefix = "fds.execution")
+public class ExecutionProperties {
+
+    /**
+     * REACTIVE (default) or VIRTUAL_THREADS.
+     */
+    private ExecutionMode mode = ExecutionMode.REACTIVE;
+}
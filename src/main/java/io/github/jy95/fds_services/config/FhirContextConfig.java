@@ -0,0 +1,41 @@
+package io.github.jy95.fds_services.config;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.PerformanceOptionsEnum;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * One shared {@link FhirContext} per FHIR version.
+ * <p>
+ * Contexts are only created on first use, and with deferred model scanning
+ * only the definitions reachable from what is actually parsed (MedicationRequest, Dosage, Timing) are built.
+ * A version can be disabled entirely (its endpoints, resolvers and context are then not created).
+ */
+@Configuration
+public class FhirContextConfig {
+
+    public static final String R4_ENABLED = "fds.fhir.r4.enabled";
+    public static final String R5_ENABLED = "fds.fhir.r5.enabled";
+
+    @Bean
+    @Lazy
+    @ConditionalOnProperty(name = R4_ENABLED, havingValue = "true", matchIfMissing = true)
+    public FhirContext fhirContextR4() {
+        return configure(FhirContext.forR4());
+    }
+
+    @Bean
+    @Lazy
+    @ConditionalOnProperty(name = R5_ENABLED, havingValue = "true", matchIfMissing = true)
+    public FhirContext fhirContextR5() {
+        return configure(FhirContext.forR5());
+    }
+
+    private static FhirContext configure(FhirContext context) {
+        context.setPerformanceOptions(PerformanceOptionsEnum.DEFERRED_MODEL_SCANNING);
+        return context;
+    }
+}
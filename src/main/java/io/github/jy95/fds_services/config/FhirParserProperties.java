@@ -0,0 +1,18 @@
+package io.github.jy95.fds_services.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sizing of the FHIR parser pools (one per FHIR version).
+ */
+@Data
+@ConfigurationProperties(prefix = "fds.fhir.parser")
+public class FhirParserProperties {
+
+    /**
+     * Maximum number of idle parsers kept per FHIR version.
+     * Parsers are created on demand when the pool is empty, so this does not limit concurrency.
+     */
+    private int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+}
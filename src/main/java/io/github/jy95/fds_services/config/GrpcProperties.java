@@ -0,0 +1,34 @@
+package io.github.jy95.fds_services.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * gRPC transport, served next to the REST API.
+ */
+@Data
+@ConfigurationProperties(prefix = "fds.grpc")
+public class GrpcProperties {
+
+    /**
+     * Whether the gRPC servers are started at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Port of the network server (0 picks a free one, -1 serves in-process callers only).
+     * Only bound when the application runs an actual web server.
+     */
+    private int port = 9090;
+
+    /**
+     * Address the network server is bound to. The server is plaintext and does not authenticate callers :
+     * it listens on the loopback interface unless told otherwise (e.g. 0.0.0.0, behind a TLS-terminating proxy).
+     */
+    private String address = "127.0.0.1";
+
+    /**
+     * Name of the in-process server. Defaults to a name unique to the application context.
+     */
+    private String inProcessName;
+}
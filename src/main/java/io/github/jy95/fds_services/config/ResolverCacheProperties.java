@@ -0,0 +1,30 @@
+package io.github.jy95.fds_services.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the resolver caches (dosageApiCacheR4 / dosageApiCacheR5).
+ */
+@Data
+@ConfigurationProperties(prefix = "fds.cache.resolver")
+public class ResolverCacheProperties {
+
+    /**
+     * Upper bound of the estimated heap used by cached resolvers, per FHIR version.
+     */
+    private DataSize maximumSize = DataSize.ofMegabytes(32);
+
+    /**
+     * Estimated heap footprint of a single DosageAPIR4 / DosageAPIR5 instance.
+     */
+    private DataSize estimatedFootprint = DataSize.ofKilobytes(256);
+
+    /**
+     * Resolvers not used for that long are evicted.
+     */
+    private Duration expireAfterAccess = Duration.ofMinutes(30);
+}
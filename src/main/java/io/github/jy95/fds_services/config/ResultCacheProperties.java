@@ -0,0 +1,35 @@
+package io.github.jy95.fds_services.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the translation result cache.
+ */
+@Data
+@ConfigurationProperties(prefix = "fds.cache.result")
+public class ResultCacheProperties {
+
+    /**
+     * Whether translation results are cached at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound of the estimated heap used by cached translations.
+     */
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Translations are dropped that long after being computed.
+     */
+    private Duration expireAfterWrite = Duration.ofHours(12);
+
+    /**
+     * Capacity of the off-heap tier receiving translations evicted from the heap (0 disables it).
+     */
+    private DataSize offHeapCapacity = DataSize.ofBytes(0);
+}
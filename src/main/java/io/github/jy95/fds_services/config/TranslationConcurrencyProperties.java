@@ -0,0 +1,22 @@
+package io.github.jy95.fds_services.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Caps on the number of translations in flight.
+ */
+@Data
+@ConfigurationProperties(prefix = "fds.translation.concurrency")
+public class TranslationConcurrencyProperties {
+
+    /**
+     * Maximum number of translations in flight for a single request (dosage groups x locales).
+     */
+    private int perRequest = 64;
+
+    /**
+     * Maximum number of translations in flight, all requests together.
+     */
+    private int global = 512;
+}
@@ -0,0 +1,155 @@
+package io.github.jy95.fds_services.config;
+
+import io.github.jy95.fds_services.enum_.ExecutionMode;
+import io.github.jy95.fds_services.utility.ConcurrencyLimiter;
+import io.github.jy95.fds_services.utility.DeduplicationStats;
+import io.github.jy95.fds_services.utility.TranslationOptions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scheduler on which translations are started, instead of whatever the calling thread happens to be.
+ * <p>
+ * The calls to {@code DosageAPI.asHumanReadableText}, and everything after their futures complete, run there.
+ * The library has no way to be given an executor : the asynchronous stages it chains internally keep running on
+ * {@link ForkJoinPool#commonPool()}, whatever the mode. That pool is sized by
+ * {@code java.util.concurrent.ForkJoinPool.common.parallelism} (default : cores - 1), not by these properties.
+ * Executors are published as {@code executor.*} meters (tag {@code name=fds.translation}),
+ * the common pool with the tag {@code name=fds.translation.library}.
+ * In {@link ExecutionMode#VIRTUAL_THREADS} mode, translations and their continuations run on virtual threads
+ * (the futures of the library complete on the common pool, a scheduler is needed to leave it).
+ * In {@code CALLER_RUNS} mode there is no hand-off at all : continuations run where the library completes its futures.
+ */
+@Configuration
+@EnableConfigurationProperties({
+        TranslationExecutorProperties.class,
+        TranslationConcurrencyProperties.class,
+        ExecutionProperties.class,
+        BatchProperties.class
+})
+public class TranslationExecutorConfig {
+
+    public static final String TRANSLATION_NAME = "fds.translation";
+    public static final String LIBRARY_NAME = "fds.translation.library";
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler translationScheduler(
+            TranslationExecutorProperties properties,
+            ExecutionProperties executionProperties,
+            MeterRegistry registry
+    ) {
+        if (executionProperties.getMode() == ExecutionMode.VIRTUAL_THREADS) {
+            return fromExecutor(virtualThreads(), registry);
+        }
+
+        return switch (properties.getMode()) {
+            case FIXED -> fromExecutor(
+                    Executors.newFixedThreadPool(properties.getPoolSize(), platformThreads()),
+                    registry
+            );
+            case VIRTUAL -> fromExecutor(virtualThreads(), registry);
+            case CALLER_RUNS -> Schedulers.immediate();
+        };
+    }
+
+    /**
+     * Where the library runs its own asynchronous stages
+     */
+    @Bean
+    public MeterBinder translationLibraryPoolMetrics() {
+        return new ExecutorServiceMetrics(ForkJoinPool.commonPool(), LIBRARY_NAME, Tags.empty());
+    }
+
+    @Bean
+    public ConcurrencyLimiter globalTranslationLimiter(TranslationConcurrencyProperties properties) {
+        return new ConcurrencyLimiter(properties.getGlobal());
+    }
+
+    @Bean
+    public MeterBinder globalTranslationLimiterMetrics(ConcurrencyLimiter globalTranslationLimiter) {
+        return registry -> {
+            Gauge.builder("fds.translation.in.flight", globalTranslationLimiter, ConcurrencyLimiter::inFlight)
+                    .description("Translations in flight, all requests together")
+                    .register(registry);
+            Gauge.builder("fds.translation.pending", globalTranslationLimiter, ConcurrencyLimiter::pending)
+                    .description("Translations waiting for the global concurrency cap")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public DeduplicationStats deduplicationStats() {
+        return new DeduplicationStats();
+    }
+
+    @Bean
+    public MeterBinder deduplicationMetrics(DeduplicationStats deduplicationStats) {
+        return registry -> {
+            FunctionCounter.builder("fds.translation.groups", deduplicationStats, DeduplicationStats::translatedGroups)
+                    .description("Dosage groups of the requests, translated or answered by an identical group")
+                    .tag("result", "translated")
+                    .register(registry);
+            FunctionCounter.builder(
+                            "fds.translation.groups",
+                            deduplicationStats,
+                            stats -> stats.groups() - stats.translatedGroups()
+                    )
+                    .tag("result", "deduplicated")
+                    .register(registry);
+            Gauge.builder("fds.translation.dedup.ratio", deduplicationStats, DeduplicationStats::ratio)
+                    .description("Share of the dosage groups that did not need their own translation")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public TranslationOptions translationOptions(
+            Scheduler translationScheduler,
+            ConcurrencyLimiter globalTranslationLimiter,
+            TranslationConcurrencyProperties properties,
+            DeduplicationStats deduplicationStats
+    ) {
+        return new TranslationOptions(
+                translationScheduler,
+                properties.getPerRequest(),
+                globalTranslationLimiter,
+                null,
+                deduplicationStats
+        );
+    }
+
+    private static Scheduler fromExecutor(ExecutorService executor, MeterRegistry registry) {
+        return Schedulers.fromExecutorService(
+                ExecutorServiceMetrics.monitor(registry, executor, TRANSLATION_NAME),
+                TRANSLATION_NAME
+        );
+    }
+
+    private static ExecutorService virtualThreads() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fds-translation-", 1).factory());
+    }
+
+    private static ThreadFactory platformThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "fds-translation-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
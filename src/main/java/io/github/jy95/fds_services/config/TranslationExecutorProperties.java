@@ -0,0 +1,23 @@
+package io.github.jy95.fds_services.config;
+
+import io.github.jy95.fds_services.enum_.TranslationExecutorMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Executor running the translations.
+ */
+@Data
+@ConfigurationProperties(prefix = "fds.translation.executor")
+public class TranslationExecutorProperties {
+
+    /**
+     * Kind of executor.
+     */
+    private TranslationExecutorMode mode = TranslationExecutorMode.FIXED;
+
+    /**
+     * Number of threads, for the FIXED mode only.
+     */
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+}
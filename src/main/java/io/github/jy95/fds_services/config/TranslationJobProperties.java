@@ -0,0 +1,77 @@
+package io.github.jy95.fds_services.config;
+
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import io.github.jy95.fds_services.enum_.PayloadType;
+import io.github.jy95.fds_services.enum_.TranslationJobMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Offline translation of an NDJSON file, run by the {@code batch} profile instead of serving HTTP.
+ */
+@Data
+@ConfigurationProperties(prefix = "fds.job")
+public class TranslationJobProperties {
+
+    /**
+     * What is done with each line.
+     */
+    private TranslationJobMode mode = TranslationJobMode.TRANSLATE;
+
+    /**
+     * NDJSON file to translate, one element (or resource) per line.
+     */
+    private Path input;
+
+    /**
+     * NDJSON file receiving the translations, one line per input line.
+     */
+    private Path output;
+
+    /**
+     * FHIR version of the elements.
+     */
+    private FhirVersion fhirVersion = FhirVersion.R4;
+
+    /**
+     * Kind of the elements (dosages or timings), in TRANSLATE mode.
+     */
+    private PayloadType payloadType = PayloadType.DOSAGE;
+
+    /**
+     * Params applied to every element (output format is irrelevant : one translation per line).
+     */
+    private ParamsDto params = new ParamsDto();
+
+    /**
+     * Locale of the Dosage.text written in ENRICH mode.
+     */
+    private Locale textLocale = Locale.ENGLISH;
+
+    /**
+     * Whether dosages that already have a text get a new one, in ENRICH mode.
+     */
+    private boolean overwriteText = false;
+
+    /**
+     * Approximate size of the chunks the input is split into (on line boundaries).
+     * Must stay the same between a run and its resumption.
+     */
+    private DataSize chunkSize = DataSize.ofMegabytes(32);
+
+    /**
+     * Chunks translated at once.
+     */
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * How often progress is logged.
+     */
+    private Duration progressInterval = Duration.ofSeconds(10);
+}
@@ -0,0 +1,42 @@
+package io.github.jy95.fds_services.config;
+
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Matrix of resolvers (locales x params x FHIR versions) built at startup, before accepting traffic.
+ */
+@Data
+@ConfigurationProperties(prefix = "fds.warmup")
+public class WarmupProperties {
+
+    /**
+     * Whether the warm-up phase runs at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Locales to warm up.
+     */
+    private List<Locale> locales = List.of(
+            Locale.ENGLISH,
+            Locale.FRENCH,
+            Locale.GERMAN,
+            Locale.forLanguageTag("nl")
+    );
+
+    /**
+     * Params variants to warm up (only display-related fields matter for resolvers).
+     */
+    private List<ParamsDto> params = List.of(new ParamsDto());
+
+    /**
+     * FHIR versions to warm up.
+     */
+    private List<FhirVersion> fhirVersions = List.of(FhirVersion.R4, FhirVersion.R5);
+}
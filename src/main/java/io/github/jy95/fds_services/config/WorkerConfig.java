@@ -0,0 +1,70 @@
+package io.github.jy95.fds_services.config;
+
+import io.github.jy95.fds_services.enum_.ExecutionMode;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool for CPU-bound work (payload hashing, FHIR parsing, resolver construction).
+ * <p>
+ * Event loop threads ({@code reactor-http-nio-*}) serve many connections each, so one large payload parsed there
+ * would stall all of them. Once the queue is full, new work is rejected instead of piling up.
+ * Queue depth and active threads are published as {@code executor.queued} / {@code executor.active}
+ * (tag {@code name=fds.worker}).
+ * <p>
+ * In {@link ExecutionMode#VIRTUAL_THREADS} mode, each task gets its own virtual thread instead,
+ * so blocking calls no longer hold a platform thread.
+ */
+@Configuration
+@EnableConfigurationProperties({WorkerProperties.class, ExecutionProperties.class})
+public class WorkerConfig {
+
+    public static final String WORKER_NAME = "fds.worker";
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService workerExecutor(WorkerProperties properties, ExecutionProperties executionProperties) {
+        if (executionProperties.getMode() == ExecutionMode.VIRTUAL_THREADS) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fds-worker-", 1).factory());
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "fds-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        return new ThreadPoolExecutor(
+                properties.getPoolSize(),
+                properties.getPoolSize(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler workerScheduler(ExecutorService workerExecutor) {
+        return Schedulers.fromExecutorService(workerExecutor, WORKER_NAME);
+    }
+
+    @Bean
+    public ExecutorServiceMetrics workerExecutorMetrics(ExecutorService workerExecutor) {
+        return new ExecutorServiceMetrics(workerExecutor, WORKER_NAME, Tags.empty());
+    }
+}
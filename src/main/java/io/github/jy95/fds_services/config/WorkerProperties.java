@@ -0,0 +1,22 @@
+package io.github.jy95.fds_services.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sizing of the worker pool running parsing and resolver construction, away from the Netty event loop.
+ */
+@Data
+@ConfigurationProperties(prefix = "fds.worker")
+public class WorkerProperties {
+
+    /**
+     * Number of worker threads (the work is CPU-bound).
+     */
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Maximum number of tasks waiting for a worker, beyond which requests are rejected.
+     */
+    private int queueCapacity = 1024;
+}
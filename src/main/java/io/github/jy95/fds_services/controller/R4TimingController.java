@@ -1,29 +1,35 @@
 package io.github.jy95.fds_services.controller;
 
-import ca.uhn.fhir.context.FhirContext;
-import ca.uhn.fhir.parser.IParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.jy95.fds_services.config.FhirContextConfig;
+import io.github.jy95.fds_services.dto.BatchRequestDto;
+import io.github.jy95.fds_services.dto.BatchResponseDto;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.dto.StreamItemDto;
 import io.github.jy95.fds_services.dto.TimingRequestDto;
 import io.github.jy95.fds_services.dto.TimingResponseDto;
-import io.github.jy95.fds_services.service.DosageAPICacheR4Impl;
+import io.github.jy95.fds_services.enum_.PayloadType;
+import io.github.jy95.fds_services.service.TranslationServiceR4Impl;
 import io.github.jy95.fds_services.utility.DosageConversionSupport;
-import io.github.jy95.fds_services.utility.TimingConversionSupport;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import org.hl7.fhir.r4.model.MedicationRequest;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Map;
-import java.util.stream.Collectors;
-
 @RestController
+@ConditionalOnProperty(name = FhirContextConfig.R4_ENABLED, havingValue = "true", matchIfMissing = true)
 @RequestMapping("/r4/timing")
 @Tag(
         name = "R4 Timing",
@@ -33,18 +39,13 @@ import java.util.stream.Collectors;
                 description = "HL7 Definition"
         )
 )
-public class R4TimingController implements DosageConversionSupport, TimingConversionSupport {
-
-    /**
-     * The FHIR context for R4.
-     */
-    private static final IParser JSON_PARSER = FhirContext.forR4().newJsonParser();
+public class R4TimingController implements DosageConversionSupport {
 
     /**
-     * The shared cache, for reusable requests
+     * Translations, shared with the other transports
      */
     @Autowired
-    private DosageAPICacheR4Impl cache;
+    private TranslationServiceR4Impl translationService;
 
     @PostMapping(
             value = "/asHumanReadableText",
@@ -59,42 +60,84 @@ public class R4TimingController implements DosageConversionSupport, TimingConver
             @Valid @RequestBody Mono<TimingRequestDto> requestDtoMono
     ) {
         return requestDtoMono
-                .flatMap(requestDto -> {
-                    // Extract parameters
-                    var params = requestDto.getParams();
+                .flatMap(requestDto -> translationService.translate(
+                        PayloadType.TIMING,
+                        requestDto.getTimings(),
+                        requestDto.getParams()
+                ))
+                .map(this::toTimingResponse);
+    }
 
-                    // Extract requested languages
-                    var locales = params.getLocales();
+    @PostMapping(
+            value = "/asHumanReadableText",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    @Operation(
+            summary = "Turn timing(s) into text, progressively",
+            description = "Convert timing(s) into human readable-text into requested languages, " +
+                    "sending each item (event 'item') and issue (event 'issue') as soon as it is ready, " +
+                    "in input order, then a final 'summary' event"
+    )
+    public Flux<ServerSentEvent<Object>> asHumanReadableTextEvents(
+            @Valid @RequestBody Mono<TimingRequestDto> requestDtoMono
+    ) {
+        return requestDtoMono.flatMapMany(requestDto -> toServerSentEvents(translationService.translateProgressively(
+                PayloadType.TIMING,
+                requestDto.getTimings(),
+                requestDto.getParams()
+        )));
+    }
 
-                    // Extract dosages
-                    var dosages = validateAndExtractTiming(
-                            requestDto.getTimings(),
-                            JSON_PARSER,
-                            MedicationRequest.class,
-                            r -> ((MedicationRequest) r).getDosageInstruction(),
-                            params.getOutputFormat()
-                    );
+    @PostMapping(
+            value = "/asHumanReadableText/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(
+            summary = "Turn several independent timing requests into text",
+            description = "Convert the timing(s) of each entry into human readable-text, with the params of that entry. " +
+                    "Responses are returned in the order of the entries"
+    )
+    public Mono<BatchResponseDto<TimingResponseDto>> asHumanReadableTextBatch(
+            @Valid @RequestBody Mono<BatchRequestDto<TimingRequestDto>> batchDtoMono
+    ) {
+        return batchDtoMono
+                .flatMap(batchDto -> translationService.translateBatch(
+                        PayloadType.TIMING,
+                        batchDto.getEntries(),
+                        TimingRequestDto::getTimings,
+                        TimingRequestDto::getParams
+                ))
+                .map(responses -> BatchResponseDto
+                        .<TimingResponseDto>builder()
+                        .responses(responses.stream().map(this::toTimingResponse).toList())
+                        .build()
+                );
+    }
 
-                    // Create resolvers
-                    var resolvers = locales
-                            .stream()
-                            .distinct()
-                            .map(locale -> Map.entry(locale, cache.getCreator(locale, params)))
-                            .collect(Collectors.toMap(
-                                    Map.Entry::getKey,
-                                    Map.Entry::getValue
-                            ));
+    @PostMapping(
+            value = "/asHumanReadableText",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    @Operation(
+            summary = "Turn a stream of timings into text",
+            description = "Convert timings, one per line, into human readable-text into requested languages, " +
+                    "streamed back one line per timing in the same order, with the issues of that timing"
+    )
+    public Flux<StreamItemDto> asHumanReadableTextStream(
+            @RequestBody Flux<JsonNode> timings,
+            @Valid @ParameterObject ParamsDto params
+    ) {
+        return translationService.translateStream(PayloadType.TIMING, timings, params);
+    }
 
-                    return translateDosagesWithIssues(
-                            dosages,
-                            locales,
-                            resolvers
-                    ).map(dosageResponseDto -> TimingResponseDto
-                            .builder()
-                            .issues(dosageResponseDto.getIssues())
-                            .items(dosageResponseDto.getItems())
-                            .build()
-                    );
-                });
+    private TimingResponseDto toTimingResponse(DosageResponseDto dosageResponseDto) {
+        return TimingResponseDto
+                .builder()
+                .issues(dosageResponseDto.getIssues())
+                .items(dosageResponseDto.getItems())
+                .build();
     }
 }
@@ -1,28 +1,34 @@
 package io.github.jy95.fds_services.controller;
 
-import ca.uhn.fhir.context.FhirContext;
-import ca.uhn.fhir.parser.IParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.jy95.fds_services.config.FhirContextConfig;
+import io.github.jy95.fds_services.dto.BatchRequestDto;
+import io.github.jy95.fds_services.dto.BatchResponseDto;
 import io.github.jy95.fds_services.dto.DosageRequestDto;
 import io.github.jy95.fds_services.dto.DosageResponseDto;
-import io.github.jy95.fds_services.service.DosageAPICacheR5Impl;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.dto.StreamItemDto;
+import io.github.jy95.fds_services.enum_.PayloadType;
+import io.github.jy95.fds_services.service.TranslationServiceR5Impl;
 import io.github.jy95.fds_services.utility.DosageConversionSupport;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import org.hl7.fhir.r5.model.MedicationRequest;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Map;
-import java.util.stream.Collectors;
-
 @RestController
+@ConditionalOnProperty(name = FhirContextConfig.R5_ENABLED, havingValue = "true", matchIfMissing = true)
 @RequestMapping("/r5/dosage")
 @Tag(
         name = "R5 Dosage",
@@ -35,15 +41,10 @@ import java.util.stream.Collectors;
 public class R5DosageController implements DosageConversionSupport {
 
     /**
-     * The FHIR context for R5.
-     */
-    private static final IParser JSON_PARSER = FhirContext.forR5().newJsonParser();
-
-    /**
-     * The shared cache, for reusable requests
+     * Translations, shared with the other transports
      */
     @Autowired
-    private DosageAPICacheR5Impl cache;
+    private TranslationServiceR5Impl translationService;
 
     @PostMapping(
             value = "/asHumanReadableText",
@@ -57,38 +58,75 @@ public class R5DosageController implements DosageConversionSupport {
     public Mono<DosageResponseDto> asHumanReadableText(
             @Valid @RequestBody Mono<DosageRequestDto> requestDtoMono
     ) {
-        return requestDtoMono
-                .flatMap(requestDto -> {
-                    // Extract parameters
-                    var params = requestDto.getParams();
-
-                    // Extract requested languages
-                    var locales = params.getLocales();
+        return requestDtoMono.flatMap(requestDto -> translationService.translate(
+                PayloadType.DOSAGE,
+                requestDto.getDosages(),
+                requestDto.getParams()
+        ));
+    }
 
-                    // Extract dosages
-                    var dosages = validateAndExtractDosages(
-                            requestDto.getDosages(),
-                            JSON_PARSER,
-                            MedicationRequest.class,
-                            r -> ((MedicationRequest) r).getDosageInstruction(),
-                            params.getOutputFormat()
-                    );
+    @PostMapping(
+            value = "/asHumanReadableText",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    @Operation(
+            summary = "Turn dosage(s) into text, progressively",
+            description = "Convert dosage(s) into human readable-text into requested languages, " +
+                    "sending each item (event 'item') and issue (event 'issue') as soon as it is ready, " +
+                    "in input order, then a final 'summary' event"
+    )
+    public Flux<ServerSentEvent<Object>> asHumanReadableTextEvents(
+            @Valid @RequestBody Mono<DosageRequestDto> requestDtoMono
+    ) {
+        return requestDtoMono.flatMapMany(requestDto -> toServerSentEvents(translationService.translateProgressively(
+                PayloadType.DOSAGE,
+                requestDto.getDosages(),
+                requestDto.getParams()
+        )));
+    }
 
-                    // Create resolvers
-                    var resolvers = locales
-                            .stream()
-                            .distinct()
-                            .map(locale -> Map.entry(locale, cache.getCreator(locale, params)))
-                            .collect(Collectors.toMap(
-                                    Map.Entry::getKey,
-                                    Map.Entry::getValue
-                            ));
+    @PostMapping(
+            value = "/asHumanReadableText/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(
+            summary = "Turn several independent dosage requests into text",
+            description = "Convert the dosage(s) of each entry into human readable-text, with the params of that entry. " +
+                    "Responses are returned in the order of the entries"
+    )
+    public Mono<BatchResponseDto<DosageResponseDto>> asHumanReadableTextBatch(
+            @Valid @RequestBody Mono<BatchRequestDto<DosageRequestDto>> batchDtoMono
+    ) {
+        return batchDtoMono
+                .flatMap(batchDto -> translationService.translateBatch(
+                        PayloadType.DOSAGE,
+                        batchDto.getEntries(),
+                        DosageRequestDto::getDosages,
+                        DosageRequestDto::getParams
+                ))
+                .map(responses -> BatchResponseDto
+                        .<DosageResponseDto>builder()
+                        .responses(responses)
+                        .build()
+                );
+    }
 
-                    return translateDosagesWithIssues(
-                            dosages,
-                            locales,
-                            resolvers
-                    );
-                });
+    @PostMapping(
+            value = "/asHumanReadableText",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    @Operation(
+            summary = "Turn a stream of dosages into text",
+            description = "Convert dosages, one per line, into human readable-text into requested languages, " +
+                    "streamed back one line per dosage in the same order, with the issues of that dosage"
+    )
+    public Flux<StreamItemDto> asHumanReadableTextStream(
+            @RequestBody Flux<JsonNode> dosages,
+            @Valid @ParameterObject ParamsDto params
+    ) {
+        return translationService.translateStream(PayloadType.DOSAGE, dosages, params);
     }
 }
@@ -0,0 +1,185 @@
+package io.github.jy95.fds_services.controller;
+
+import ca.uhn.fhir.parser.DataFormatException;
+import io.github.jy95.fds_services.config.FhirContextConfig;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import io.github.jy95.fds_services.service.FhirParserProvider;
+import io.github.jy95.fds_services.service.TranslationServiceR5Impl;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import io.swagger.v3.oas.annotations.ExternalDocumentation;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r5.model.Bundle;
+import org.hl7.fhir.r5.model.CodeType;
+import org.hl7.fhir.r5.model.Dosage;
+import org.hl7.fhir.r5.model.MedicationRequest;
+import org.hl7.fhir.r5.model.StringType;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.function.Tuples;
+
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@ConditionalOnProperty(name = FhirContextConfig.R5_ENABLED, havingValue = "true", matchIfMissing = true)
+@RequestMapping("/r5/medicationRequest")
+@Tag(
+        name = "R5 MedicationRequest",
+        description = "APIs for FHIR R5 MedicationRequest",
+        externalDocs = @ExternalDocumentation(
+                url = "https://www.hl7.org/fhir/R5/medicationrequest.html",
+                description = "HL7 Definition"
+        )
+)
+public class R5MedicationRequestController implements DosageConversionSupport {
+
+    private static final String FHIR_JSON_VALUE = "application/fhir+json";
+
+    /**
+     * Translations, shared with the other transports
+     */
+    @Autowired
+    private TranslationServiceR5Impl translationService;
+
+    /**
+     * Parsers are not shared between concurrent requests
+     */
+    @Autowired
+    private FhirParserProvider parsers;
+
+    /**
+     * Bounded pool for CPU-bound work
+     */
+    @Autowired
+    private Scheduler workerScheduler;
+
+    @PostMapping(
+            value = "/asHumanReadableText",
+            consumes = {FHIR_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = {FHIR_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE}
+    )
+    @Operation(
+            summary = "Fill the dosage texts of a MedicationRequest",
+            description = "Return the MedicationRequest (or Bundle of MedicationRequest) with the text of every " +
+                    "dosage instruction in the first requested language, and translation extensions for the others. " +
+                    "Translations that failed are reported as Warning headers, or as a problem when none succeeded"
+    )
+    public Mono<ResponseEntity<String>> asHumanReadableText(
+            @RequestBody Mono<String> resource,
+            @Valid @ParameterObject ParamsDto params
+    ) {
+        // The first locale fills the texts
+        if (params.getLocales().isEmpty()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one locale is required"));
+        }
+
+        return resource
+                // The latency budget starts once the body is read, waiting for a worker included
+                .map(json -> Tuples.of(json, System.nanoTime()))
+                // Parsing and resolver construction must not run on the event loop
+                .publishOn(workerScheduler)
+                .flatMap(read -> {
+                    var parsed = parse(read.getT1());
+                    var dosages = medicationRequestsOf(parsed)
+                            .stream()
+                            .flatMap(request -> request.getDosageInstruction().stream())
+                            .toList();
+
+                    return translate(dosages, params, read.getT2())
+                            .map(this::requireTranslations)
+                            .map(response -> {
+                                fillTexts(dosages, response, params.getLocales());
+                                return ResponseEntity
+                                        .ok()
+                                        .headers(headers -> headers.addAll(HttpHeaders.WARNING, createWarnings(response.getIssues())))
+                                        .body(parsers.withJsonParser(FhirVersion.R5, parser -> parser.encodeResourceToString(parsed)));
+                            });
+                });
+    }
+
+    private IBaseResource parse(String json) {
+        try {
+            return parsers.withJsonParser(FhirVersion.R5, parser -> parser.parseResource(json));
+        } catch (DataFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private static List<MedicationRequest> medicationRequestsOf(IBaseResource resource) {
+        if (resource instanceof MedicationRequest request) {
+            return List.of(request);
+        }
+        if (resource instanceof Bundle bundle) {
+            // Other entries are returned as they are
+            return bundle
+                    .getEntry()
+                    .stream()
+                    .map(Bundle.BundleEntryComponent::getResource)
+                    .filter(MedicationRequest.class::isInstance)
+                    .map(MedicationRequest.class::cast)
+                    .toList();
+        }
+        throw new ResponseStatusException(
+                HttpStatus.BAD_REQUEST,
+                "Expected a MedicationRequest or a Bundle, got " + resource.fhirType()
+        );
+    }
+
+    private Mono<DosageResponseDto> translate(List<Dosage> dosages, ParamsDto params, long readAt) {
+        if (dosages.isEmpty()) {
+            return Mono.just(DosageResponseDto.builder().build());
+        }
+
+        // One text per dosage
+        return translationService.translateDosages(dosages, params, readAt);
+    }
+
+    /**
+     * Text in the first locale, translation extensions for the others.
+     * A dosage keeps its own text when the first locale could not be translated,
+     * and its own translation extensions for the other locales that could not be.
+     */
+    private static void fillTexts(List<Dosage> dosages, DosageResponseDto response, List<Locale> locales) {
+        for (int i = 0; i < dosages.size() && i < response.getItems().size(); i++) {
+            var translations = response.getItems().get(i).getTranslations();
+            var text = dosages.get(i).getTextElement();
+            String primary = translations.get(locales.getFirst().getLanguage());
+            if (primary != null) {
+                // Former translations were of the former text
+                text.setValue(primary);
+                text.getExtension().removeIf(extension -> TRANSLATION_EXTENSION.equals(extension.getUrl()));
+            }
+
+            for (Locale locale : locales.subList(1, locales.size())) {
+                String translation = translations.get(locale.getLanguage());
+                if (translation != null) {
+                    String lang = locale.toLanguageTag();
+                    text.getExtension().removeIf(extension -> TRANSLATION_EXTENSION.equals(extension.getUrl())
+                            && extension.getExtensionByUrl("lang") != null
+                            && lang.equals(extension.getExtensionByUrl("lang").getValue().primitiveValue()));
+                    var extension = text.addExtension();
+                    extension.setUrl(TRANSLATION_EXTENSION);
+                    extension.addExtension("lang", new CodeType(locale.toLanguageTag()));
+                    extension.addExtension("content", new StringType(translation));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.jy95.fds_services.dto;
+
+import io.github.jy95.fds_services.validation.MaxBatchSize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Independent translation requests sent together.
+ *
+ * @param <T> Type of the requests (dosages or timings).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchRequestDto<T> {
+
+    @Schema(
+            description = "Requests to translate, each with its own params (at most fds.batch.max-entries)"
+    )
+    @NotNull
+    @MaxBatchSize
+    private List<@Valid @NotNull T> entries;
+}
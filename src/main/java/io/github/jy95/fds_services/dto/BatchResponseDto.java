@@ -0,0 +1,27 @@
+package io.github.jy95.fds_services.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Responses of a batch, in the order of its entries.
+ *
+ * @param <T> Type of the responses (dosages or timings).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchResponseDto<T> {
+
+    @Schema(
+            description = "One response per entry, at the same position, each with its own issues"
+    )
+    @Builder.Default
+    private List<T> responses = List.of();
+}
@@ -5,6 +5,7 @@ import io.github.jy95.fds.common.types.DisplayOrder;
 import io.github.jy95.fds_services.enum_.OutputFormat;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,7 +20,7 @@ import java.util.Locale;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Schema(
         name = "ParamsDto",
         description = "Parameters for dosage text generation."
@@ -62,4 +63,18 @@ public class ParamsDto {
 
     @Builder.Default
     private OutputFormat outputFormat = DEFAULT_OUTPUT_FORMAT;
+
+    @Schema(
+            description = "Whether previously computed translations may be reused for this request.",
+            defaultValue = "true"
+    )
+    @Builder.Default
+    private boolean useResultCache = true;
+
+    @Schema(
+            description = "Latency budget in milliseconds. Locales not translated in time are reported in issues.",
+            example = "300"
+    )
+    @Positive
+    private Long timeoutMillis;
 }
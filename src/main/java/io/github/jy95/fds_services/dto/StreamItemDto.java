@@ -0,0 +1,28 @@
+package io.github.jy95.fds_services.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import org.springframework.http.ProblemDetail;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One line of a streamed response : the translations of one element, and the issues met while translating it.
+ */
+@Value
+@Builder
+public class StreamItemDto {
+
+    @Singular("entry")
+    @Schema(description = "Map of language codes to translated strings, without the locales that failed.")
+    Map<String, String> translations;
+
+    @Singular
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    @Schema(description = "Why the element, or some of its locales, could not be translated. Omitted when none.")
+    List<ProblemDetail> issues;
+}
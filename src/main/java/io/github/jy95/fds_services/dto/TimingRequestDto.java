@@ -2,6 +2,7 @@ package io.github.jy95.fds_services.dto;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -46,5 +47,6 @@ public class TimingRequestDto {
     @Schema(
             description = "Optional parameters to control the formatting and output of timings"
     )
+    @Valid
     private ParamsDto params = new ParamsDto();
 }
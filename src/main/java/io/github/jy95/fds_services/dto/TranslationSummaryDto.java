@@ -0,0 +1,19 @@
+package io.github.jy95.fds_services.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Last event of a progressive response, once every item was sent.
+ */
+@Value
+@Builder
+public class TranslationSummaryDto {
+
+    @Schema(description = "Number of items sent.")
+    int items;
+
+    @Schema(description = "Number of issues sent.")
+    int issues;
+}
@@ -24,6 +24,12 @@ public enum BelgifProblemType {
             "Bad Gateway",
             502
     ),
+    TOO_MANY_REQUESTS(
+            "urn:problem-type:belgif:tooManyRequests",
+            "https://www.belgif.be/specification/rest/api-guide/problems/tooManyRequests.html",
+            "Too Many Requests",
+            429
+    ),
     SERVICE_UNAVAILABLE(
             "urn:problem-type:belgif:serviceUnavailable",
             "https://www.belgif.be/specification/rest/api-guide/problems/serviceUnavailable.html",
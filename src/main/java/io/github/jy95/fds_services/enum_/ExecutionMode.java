@@ -0,0 +1,16 @@
+package io.github.jy95.fds_services.enum_;
+
+/**
+ * How the translation pipeline (parse, resolve, translate) of a request is executed.
+ */
+public enum ExecutionMode {
+    /**
+     * Bounded pool of platform workers, translations started on the translation executor.
+     */
+    REACTIVE,
+
+    /**
+     * Each request's pipeline runs on its own virtual thread, translations included.
+     */
+    VIRTUAL_THREADS
+}
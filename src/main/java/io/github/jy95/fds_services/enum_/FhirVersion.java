@@ -0,0 +1,9 @@
+package io.github.jy95.fds_services.enum_;
+
+/**
+ * FHIR versions supported by the service.
+ */
+public enum FhirVersion {
+    R4,
+    R5
+}
@@ -0,0 +1,9 @@
+package io.github.jy95.fds_services.enum_;
+
+/**
+ * Kind of FHIR elements sent by the client.
+ */
+public enum PayloadType {
+    DOSAGE,
+    TIMING
+}
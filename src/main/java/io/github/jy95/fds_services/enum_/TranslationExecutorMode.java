@@ -0,0 +1,22 @@
+package io.github.jy95.fds_services.enum_;
+
+/**
+ * Where translations (DosageAPI.asHumanReadableText) are started, and continued once the library answers.
+ * Asynchronous stages inside the library run on the common fork-join pool, whatever the mode.
+ */
+public enum TranslationExecutorMode {
+    /**
+     * Dedicated pool with a fixed number of platform threads.
+     */
+    FIXED,
+
+    /**
+     * One virtual thread per translation.
+     */
+    VIRTUAL,
+
+    /**
+     * On the thread that requests the translation (no hand-off).
+     */
+    CALLER_RUNS
+}
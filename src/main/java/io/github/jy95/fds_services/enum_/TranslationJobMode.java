@@ -0,0 +1,11 @@
+package io.github.jy95.fds_services.enum_;
+
+/**
+ * What the offline job does with each line of its input.
+ */
+public enum TranslationJobMode {
+    // Element (dosage or timing) in, translations (LocalizedDto) out
+    TRANSLATE,
+    // Bulk Data resource (MedicationRequest / MedicationStatement) in, same resource with Dosage.text out
+    ENRICH
+}
@@ -1,12 +1,15 @@
 package io.github.jy95.fds_services.exception;
 
+import io.github.jy95.fds_services.config.AdmissionControlProperties;
 import io.github.jy95.fds_services.enum_.BelgifInputValidation;
 import io.github.jy95.fds_services.enum_.BelgifIssueLocation;
 import io.github.jy95.fds_services.enum_.BelgifProblemType;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -18,11 +21,21 @@ import java.net.URI;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @Order  // optional: can specify precedence if needed
 @ControllerAdvice
 public class BelgifErrorHandler {
 
+    /**
+     * For the Retry-After header of requests rejected for lack of capacity
+     */
+    private final AdmissionControlProperties admissionControlProperties;
+
+    public BelgifErrorHandler(AdmissionControlProperties admissionControlProperties) {
+        this.admissionControlProperties = admissionControlProperties;
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(WebExchangeBindException.class)
     public ProblemDetail handleValidationExceptions(WebExchangeBindException ex, ServerWebExchange exchange) {
@@ -53,6 +66,40 @@ public class BelgifErrorHandler {
         return buildProblemDetail(type, detail, exchange);
     }
 
+    /**
+     * The worker queue is full : same answer as admission control, the client should retry later.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ProblemDetail> handleRejectedExecutionException(
+            RejectedExecutionException ex,
+            ServerWebExchange exchange
+    ) {
+        BelgifProblemType type = BelgifProblemType.TOO_MANY_REQUESTS;
+        return ResponseEntity
+                .status(type.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, admissionControlProperties.retryAfterHeader())
+                .body(buildProblemDetail(type, "The service is at capacity, retry later", exchange));
+    }
+
+    /**
+     * Every translation failed : the issues are those of the translations.
+     */
+    @ExceptionHandler(TranslationFailedException.class)
+    public ResponseEntity<ProblemDetail> handleTranslationFailedException(
+            TranslationFailedException ex,
+            ServerWebExchange exchange
+    ) {
+        // Only timeouts : a later attempt may complete in time
+        URI timeout = URI.create(BelgifProblemType.SERVICE_UNAVAILABLE.getType());
+        BelgifProblemType type = ex.getIssues().stream().allMatch(issue -> timeout.equals(issue.getType()))
+                ? BelgifProblemType.SERVICE_UNAVAILABLE
+                : BelgifProblemType.INTERNAL_SERVER_ERROR;
+
+        var problem = buildProblemDetail(type, ex.getMessage(), exchange);
+        problem.setProperty("issues", ex.getIssues());
+        return ResponseEntity.status(type.getStatus()).body(problem);
+    }
+
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     @ExceptionHandler(Exception.class)
     public ProblemDetail handleGenericException(Exception ex, ServerWebExchange exchange) {
@@ -60,7 +107,10 @@ public class BelgifErrorHandler {
         return buildProblemDetail(type, ex.getMessage(), exchange);
     }
 
-    private ProblemDetail buildProblemDetail(BelgifProblemType type, String detail, ServerWebExchange exchange) {
+    /**
+     * Builds a BELGIF problem for that request, also used by web filters answering before any controller.
+     */
+    public static ProblemDetail buildProblemDetail(BelgifProblemType type, String detail, ServerWebExchange exchange) {
         ProblemDetail problemDetail = ProblemDetail.forStatus(type.getStatus());
         problemDetail.setType(URI.create(type.getType()));
         problemDetail.setTitle(type.getTitle());
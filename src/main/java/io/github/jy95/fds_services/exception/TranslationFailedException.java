@@ -0,0 +1,23 @@
+package io.github.jy95.fds_services.exception;
+
+import lombok.Getter;
+import org.springframework.http.ProblemDetail;
+
+import java.util.List;
+
+/**
+ * Not a single translation could be made : the response would be the request, unchanged.
+ */
+@Getter
+public class TranslationFailedException extends RuntimeException {
+
+    /**
+     * Why each translation failed
+     */
+    private final transient List<ProblemDetail> issues;
+
+    public TranslationFailedException(List<ProblemDetail> issues) {
+        super("No dosage could be translated");
+        this.issues = issues;
+    }
+}
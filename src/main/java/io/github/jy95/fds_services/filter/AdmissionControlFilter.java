@@ -0,0 +1,159 @@
+package io.github.jy95.fds_services.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jy95.fds_services.config.AdmissionControlProperties;
+import io.github.jy95.fds_services.enum_.BelgifProblemType;
+import io.github.jy95.fds_services.exception.BelgifErrorHandler;
+import io.github.jy95.fds_services.utility.AimdLimit;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+
+/**
+ * Admission control for the translation endpoints.
+ * <p>
+ * Past a certain point, accepting more work only makes every request slower. The number of requests processed
+ * at once is capped by an {@link AimdLimit} that follows the observed latency, and requests over it are answered
+ * immediately with a BELGIF {@code tooManyRequests} problem and a {@code Retry-After} header.
+ * Paths outside {@code fds.admission.paths} (health checks, actuator) are never rejected.
+ * Streamed responses hold a slot, but their duration does not move the limit.
+ * The limit is shared with gRPC calls (see {@code AdmissionControlInterceptor}) : both transports draw from the same slots.
+ * The limit and the requests in flight are published as {@code fds.admission.limit} / {@code fds.admission.in.flight}.
+ * It runs after {@link BelGovTraceIdFilter} (and the observation filter), so that rejections are traced and measured.
+ */
+@Component
+@Order(AdmissionControlFilter.ORDER)
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlFilter implements WebFilter, MeterBinder {
+
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    private static final List<MediaType> STREAMING_TYPES = List.of(
+            MediaType.APPLICATION_NDJSON,
+            MediaType.TEXT_EVENT_STREAM
+    );
+
+    private final AdmissionControlProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AimdLimit limit;
+    private final String retryAfter;
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, ObjectMapper objectMapper) {
+        this(properties, objectMapper, properties.newLimit());
+    }
+
+    /**
+     * Uses the shared admission limit when there is one (not in web slice tests).
+     */
+    @Autowired
+    public AdmissionControlFilter(
+            AdmissionControlProperties properties,
+            ObjectMapper objectMapper,
+            ObjectProvider<AimdLimit> admissionLimit
+    ) {
+        this(properties, objectMapper, admissionLimit.getIfAvailable(properties::newLimit));
+    }
+
+    private AdmissionControlFilter(AdmissionControlProperties properties, ObjectMapper objectMapper, AimdLimit limit) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.limit = limit;
+        this.retryAfter = properties.retryAfterHeader();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.isEnabled() || !isLimited(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        if (!limit.tryAcquire()) {
+            return reject(exchange);
+        }
+
+        long start = System.nanoTime();
+        return chain
+                .filter(exchange)
+                .doFinally(signal -> {
+                    // The duration of a stream depends on its size, not on the load
+                    if (signal == SignalType.CANCEL || isStreaming(exchange)) {
+                        limit.onIgnore();
+                    } else {
+                        limit.onSample(start, System.nanoTime(), isDropped(signal, exchange));
+                    }
+                });
+    }
+
+    public AimdLimit getLimit() {
+        return limit;
+    }
+
+    private boolean isLimited(ServerWebExchange exchange) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        return properties.getPaths().stream().anyMatch(path::startsWith);
+    }
+
+    private boolean isStreaming(ServerWebExchange exchange) {
+        MediaType contentType = exchange.getResponse().getHeaders().getContentType();
+        return contentType != null && STREAMING_TYPES.stream().anyMatch(contentType::isCompatibleWith);
+    }
+
+    private boolean isDropped(SignalType signal, ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        BelgifProblemType type = BelgifProblemType.TOO_MANY_REQUESTS;
+        var problem = BelgifErrorHandler.buildProblemDetail(
+                type,
+                "The service is at capacity, retry later",
+                exchange
+        );
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(problem);
+        } catch (JsonProcessingException e) {
+            body = new byte[0];
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.valueOf(type.getStatus()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("fds.admission.limit", limit, AimdLimit::getLimit)
+                .description("Requests allowed in flight, adjusted from latency")
+                .register(registry);
+        Gauge.builder("fds.admission.in.flight", limit, AimdLimit::getInFlight)
+                .register(registry);
+        FunctionCounter.builder("fds.admission.rejected", limit, AimdLimit::getRejected)
+                .description("Requests rejected by admission control")
+                .register(registry);
+    }
+}
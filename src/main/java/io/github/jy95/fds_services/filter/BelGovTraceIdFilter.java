@@ -1,5 +1,7 @@
 package io.github.jy95.fds_services.filter;
 
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
@@ -11,9 +13,13 @@ import java.util.UUID;
 
 // https://www.belgif.be/specification/rest/api-guide/#tracing
 
+// First of all filters : responses sent by other filters (e.g. admission control rejections) carry it too
 @Component
+@Order(BelGovTraceIdFilter.ORDER)
 public class BelGovTraceIdFilter implements WebFilter {
 
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+
     private static final String TRACE_ID_HEADER = "BelGov-Trace-Id";
 
     @Override
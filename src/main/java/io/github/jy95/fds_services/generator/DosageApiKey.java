@@ -0,0 +1,98 @@
+package io.github.jy95.fds_services.generator;
+
+import io.github.jy95.fds.common.types.DisplayOrder;
+import io.github.jy95.fds_services.dto.ParamsDto;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Immutable cache key of a resolver.
+ * <p>
+ * Only the fields of {@link ParamsDto} that affect a resolver are kept (locales and output format are not),
+ * so equivalent params share the same resolver. The hash is computed once, from the display orders ordinals,
+ * and the display orders are only copied when they are not already an immutable list (such as the defaults).
+ */
+public final class DosageApiKey {
+
+    private final Locale locale;
+    private final String displaySeparator;
+    private final List<DisplayOrder> displayOrders;
+    private final int hash;
+
+    private DosageApiKey(Locale locale, String displaySeparator, List<DisplayOrder> displayOrders) {
+        this.locale = locale;
+        this.displaySeparator = displaySeparator;
+        this.displayOrders = displayOrders;
+        this.hash = computeHash(locale, displaySeparator, displayOrders);
+    }
+
+    public static DosageApiKey of(Locale locale, ParamsDto params) {
+        return new DosageApiKey(
+                locale,
+                params.getDisplaySeparator(),
+                List.copyOf(params.getDisplayOrders())
+        );
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    public String getDisplaySeparator() {
+        return displaySeparator;
+    }
+
+    public List<DisplayOrder> getDisplayOrders() {
+        return displayOrders;
+    }
+
+    private static int computeHash(Locale locale, String displaySeparator, List<DisplayOrder> displayOrders) {
+        int result = locale.hashCode();
+        result = 31 * result + Objects.hashCode(displaySeparator);
+        for (int i = 0; i < displayOrders.size(); i++) {
+            result = 31 * result + displayOrders.get(i).ordinal();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DosageApiKey other) || hash != other.hash) {
+            return false;
+        }
+        return locale.equals(other.locale)
+                && Objects.equals(displaySeparator, other.displaySeparator)
+                && sameOrders(displayOrders, other.displayOrders);
+    }
+
+    // Enum constants are singletons : no need for equals() nor an iterator
+    private static boolean sameOrders(List<DisplayOrder> a, List<DisplayOrder> b) {
+        if (a == b) {
+            return true;
+        }
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return locale.toLanguageTag() + "::" + displaySeparator + "::" + displayOrders;
+    }
+}
@@ -5,7 +5,6 @@ import org.springframework.cache.interceptor.KeyGenerator;
 
 import java.lang.reflect.Method;
 import java.util.Locale;
-import java.util.stream.Collectors;
 
 public class DosageApiKeyGenerator implements KeyGenerator {
     @Override
@@ -14,17 +13,6 @@ public class DosageApiKeyGenerator implements KeyGenerator {
         Locale locale = (Locale) params[0];
         ParamsDto dto = (ParamsDto) params[1];
 
-        var order = dto
-                .getDisplayOrders()
-                .stream()
-                .map(Enum::toString)
-                .collect(Collectors.joining("_"));
-
-        return String.join(
-                "::",
-                locale.toLanguageTag(),
-                dto.getDisplaySeparator(),
-                order
-        );
+        return DosageApiKey.of(locale, dto);
     }
 }
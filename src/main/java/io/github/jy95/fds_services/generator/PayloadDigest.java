@@ -0,0 +1,47 @@
+package io.github.jy95.fds_services.generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Content hash of a JSON payload, insensitive to the order of object properties.
+ */
+public final class PayloadDigest {
+
+    /**
+     * Writes JSON objects with their properties sorted, so equivalent payloads produce the same bytes.
+     */
+    private static final ObjectWriter CANONICAL_WRITER = new ObjectMapper()
+            .writer()
+            .with(JsonNodeFeature.WRITE_PROPERTIES_SORTED);
+
+    private PayloadDigest() {}
+
+    /**
+     * Computes the SHA-256 of the canonical JSON of the given nodes, without materializing it.
+     *
+     * @param nodes JSON nodes of the payload.
+     * @return Hexadecimal digest.
+     */
+    public static String sha256(List<JsonNode> nodes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+                CANONICAL_WRITER.writeValue(out, nodes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+}
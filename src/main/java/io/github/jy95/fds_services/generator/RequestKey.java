@@ -0,0 +1,20 @@
+package io.github.jy95.fds_services.generator;
+
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import io.github.jy95.fds_services.enum_.PayloadType;
+
+/**
+ * Identity of a translation request : two requests with the same key produce the same response.
+ *
+ * @param fhirVersion FHIR version of the payload.
+ * @param payloadType Dosages or timings.
+ * @param digest      SHA-256 of the canonical JSON of the payload.
+ * @param params      Request params.
+ */
+public record RequestKey(
+        FhirVersion fhirVersion,
+        PayloadType payloadType,
+        String digest,
+        ParamsDto params
+) {}
@@ -0,0 +1,22 @@
+package io.github.jy95.fds_services.generator;
+
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import io.github.jy95.fds_services.enum_.OutputFormat;
+import io.github.jy95.fds_services.enum_.PayloadType;
+
+/**
+ * Cache key of the translations of a payload, for one locale.
+ *
+ * @param fhirVersion  FHIR version of the payload.
+ * @param payloadType  Dosages or timings.
+ * @param digest       SHA-256 of the canonical JSON of the payload.
+ * @param resolverKey  Locale and display params.
+ * @param outputFormat How the payload is grouped.
+ */
+public record TranslationResultKey(
+        FhirVersion fhirVersion,
+        PayloadType payloadType,
+        String digest,
+        DosageApiKey resolverKey,
+        OutputFormat outputFormat
+) {}
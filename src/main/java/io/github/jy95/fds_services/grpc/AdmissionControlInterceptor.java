@@ -0,0 +1,110 @@
+package io.github.jy95.fds_services.grpc;
+
+import io.github.jy95.fds_services.config.AdmissionControlProperties;
+import io.github.jy95.fds_services.utility.AimdLimit;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control of gRPC calls, with the same limit as {@code AdmissionControlFilter}.
+ * <p>
+ * Calls over the limit are closed immediately with {@code RESOURCE_EXHAUSTED} and a {@code retry-after} trailer.
+ * Streaming calls hold a slot, but their duration does not move the limit.
+ */
+@Component
+@ConditionalOnProperty(name = "fds.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlInterceptor implements ServerInterceptor {
+
+    public static final Metadata.Key<String> RETRY_AFTER = Metadata.Key.of("retry-after", Metadata.ASCII_STRING_MARSHALLER);
+
+    /**
+     * Server side failures : a sign of overload, as 5xx responses
+     */
+    private static final Set<Status.Code> DROPPED = EnumSet.of(
+            Status.Code.UNKNOWN,
+            Status.Code.INTERNAL,
+            Status.Code.UNAVAILABLE,
+            Status.Code.DEADLINE_EXCEEDED,
+            Status.Code.RESOURCE_EXHAUSTED
+    );
+
+    private final AdmissionControlProperties properties;
+    private final AimdLimit limit;
+    private final String retryAfter;
+
+    public AdmissionControlInterceptor(AdmissionControlProperties properties, AimdLimit admissionLimit) {
+        this.properties = properties;
+        this.limit = admissionLimit;
+        this.retryAfter = properties.retryAfterHeader();
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(
+            ServerCall<Q, R> call,
+            Metadata headers,
+            ServerCallHandler<Q, R> next
+    ) {
+        if (!properties.isEnabled()) {
+            return next.startCall(call, headers);
+        }
+
+        if (!limit.tryAcquire()) {
+            Metadata trailers = new Metadata();
+            trailers.put(RETRY_AFTER, retryAfter);
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("The service is at capacity, retry later"), trailers);
+            return new ServerCall.Listener<>() {};
+        }
+
+        long start = System.nanoTime();
+        boolean streaming = !call.getMethodDescriptor().getType().clientSendsOneMessage()
+                || !call.getMethodDescriptor().getType().serverSendsOneMessage();
+        // The slot is given back once : on close, or on cancellation by the client
+        AtomicBoolean released = new AtomicBoolean();
+
+        ServerCall<Q, R> releasingCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                if (released.compareAndSet(false, true)) {
+                    // The duration of a stream depends on its size, not on the load
+                    if (streaming) {
+                        limit.onIgnore();
+                    } else {
+                        limit.onSample(start, System.nanoTime(), DROPPED.contains(status.getCode()));
+                    }
+                }
+                super.close(status, trailers);
+            }
+        };
+
+        ServerCall.Listener<Q> listener;
+        try {
+            listener = next.startCall(releasingCall, headers);
+        } catch (RuntimeException e) {
+            if (released.compareAndSet(false, true)) {
+                limit.onIgnore();
+            }
+            throw e;
+        }
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onCancel() {
+                if (released.compareAndSet(false, true)) {
+                    limit.onIgnore();
+                }
+                super.onCancel();
+            }
+        };
+    }
+}
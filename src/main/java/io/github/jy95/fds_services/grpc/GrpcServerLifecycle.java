@@ -0,0 +1,136 @@
+package io.github.jy95.fds_services.grpc;
+
+import io.github.jy95.fds_services.config.GrpcProperties;
+import io.grpc.BindableService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ObjectUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the gRPC servers with the application, and stops them before the beans they rely on.
+ * <p>
+ * The in-process server is always started, so that callers living in the same JVM skip serialization to the network.
+ * The network server is only bound when the application runs an actual web server (not in mock web environments),
+ * on the loopback interface by default (see {@link GrpcProperties#getAddress()}).
+ * Every service goes through the {@link ServerInterceptor} beans, such as admission control.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "fds.grpc.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(GrpcProperties.class)
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    @Autowired
+    private GrpcProperties properties;
+
+    @Autowired
+    private List<BindableService> services;
+
+    @Autowired
+    private List<ServerInterceptor> interceptors;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private Server inProcessServer;
+    private Server networkServer;
+    private String inProcessName;
+
+    @Override
+    public synchronized void start() {
+        inProcessName = properties.getInProcessName() != null
+                ? properties.getInProcessName()
+                : "fds-" + ObjectUtils.getIdentityHexString(context);
+
+        try {
+            var inProcessBuilder = InProcessServerBuilder.forName(inProcessName);
+            services.forEach(service -> inProcessBuilder.addService(ServerInterceptors.intercept(service, interceptors)));
+            inProcessServer = inProcessBuilder.build().start();
+
+            if (context instanceof ReactiveWebServerApplicationContext && properties.getPort() >= 0) {
+                var networkBuilder = NettyServerBuilder.forAddress(
+                        new InetSocketAddress(properties.getAddress(), properties.getPort())
+                );
+                services.forEach(service -> networkBuilder.addService(ServerInterceptors.intercept(service, interceptors)));
+                networkServer = networkBuilder.build().start();
+                log.info("gRPC server started on {}", getListenAddress());
+            }
+        } catch (IOException e) {
+            stop();
+            throw new UncheckedIOException("Could not start the gRPC server", e);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        shutdown(networkServer);
+        shutdown(inProcessServer);
+        networkServer = null;
+        inProcessServer = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return inProcessServer != null;
+    }
+
+    /**
+     * Port the network server listens on, or -1 when it is not started.
+     */
+    public synchronized int getPort() {
+        return networkServer != null ? networkServer.getPort() : -1;
+    }
+
+    /**
+     * Address the network server listens on, or null when it is not started.
+     */
+    public synchronized InetSocketAddress getListenAddress() {
+        return networkServer != null ? (InetSocketAddress) networkServer.getListenSockets().getFirst() : null;
+    }
+
+    public synchronized String getInProcessName() {
+        return inProcessName;
+    }
+
+    /**
+     * A channel to the in-process server, to be shut down by the caller.
+     */
+    public ManagedChannel inProcessChannel() {
+        return InProcessChannelBuilder.forName(getInProcessName()).build();
+    }
+
+    private static void shutdown(Server server) {
+        if (server == null) {
+            return;
+        }
+        server.shutdown();
+        try {
+            // Let in-flight calls complete, then abort the rest
+            if (!server.awaitTermination(5, TimeUnit.SECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
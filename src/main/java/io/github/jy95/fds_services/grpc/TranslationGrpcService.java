@@ -0,0 +1,268 @@
+package io.github.jy95.fds_services.grpc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.jy95.fds.common.types.DisplayOrder;
+import io.github.jy95.fds_services.config.BatchProperties;
+import io.github.jy95.fds_services.dto.DosageRequestDto;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.dto.LocalizedDto;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.dto.TimingRequestDto;
+import io.github.jy95.fds_services.enum_.OutputFormat;
+import io.github.jy95.fds_services.enum_.PayloadType;
+import io.github.jy95.fds_services.grpc.proto.Issue;
+import io.github.jy95.fds_services.grpc.proto.Localized;
+import io.github.jy95.fds_services.grpc.proto.Params;
+import io.github.jy95.fds_services.grpc.proto.TranslateRequest;
+import io.github.jy95.fds_services.grpc.proto.TranslateResponse;
+import io.github.jy95.fds_services.grpc.proto.TranslationServiceGrpc;
+import io.github.jy95.fds_services.service.TranslationService;
+import io.github.jy95.fds_services.service.TranslationServiceR4Impl;
+import io.github.jy95.fds_services.service.TranslationServiceR5Impl;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * gRPC counterpart of the {@code asHumanReadableText} endpoints.
+ * <p>
+ * Requests are validated as their REST counterparts, then handed to the same {@link TranslationService},
+ * so both transports share the same pipeline : worker pool, resolver caches, result cache,
+ * request coalescing and concurrency limits. Admission control is applied by {@link AdmissionControlInterceptor}.
+ */
+@Service
+@ConditionalOnProperty(name = "fds.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class TranslationGrpcService extends TranslationServiceGrpc.TranslationServiceImplBase
+        implements DosageConversionSupport {
+
+    /**
+     * Absent when that FHIR version is disabled
+     */
+    @Autowired
+    private ObjectProvider<TranslationServiceR4Impl> r4;
+
+    @Autowired
+    private ObjectProvider<TranslationServiceR5Impl> r5;
+
+    /**
+     * Same constraints as the REST requests
+     */
+    @Autowired
+    private Validator validator;
+
+    /**
+     * How many requests of a stream are processed at once
+     */
+    @Autowired
+    private BatchProperties batchProperties;
+
+    @Override
+    public void translate(TranslateRequest request, StreamObserver<TranslateResponse> responseObserver) {
+        var serverObserver = (ServerCallStreamObserver<TranslateResponse>) responseObserver;
+        var subscription = translate(request).subscribe(
+                response -> {
+                    responseObserver.onNext(response);
+                    responseObserver.onCompleted();
+                },
+                e -> responseObserver.onError(toStatus(e).asRuntimeException())
+        );
+        serverObserver.setOnCancelHandler(subscription::dispose);
+    }
+
+    @Override
+    public StreamObserver<TranslateRequest> translateStream(StreamObserver<TranslateResponse> responseObserver) {
+        var serverObserver = (ServerCallStreamObserver<TranslateResponse>) responseObserver;
+        int concurrency = Math.max(1, batchProperties.getConcurrency());
+
+        // Requests are only pulled from the client as responses are sent : at most "concurrency" of them in memory
+        serverObserver.disableAutoRequest();
+        Sinks.Many<TranslateRequest> requests = Sinks.many().unicast().onBackpressureBuffer();
+
+        var subscription = requests
+                .asFlux()
+                .flatMap(
+                        request -> translate(request).onErrorResume(e -> Mono.just(errorResponse(request, e))),
+                        concurrency
+                )
+                .subscribe(
+                        response -> {
+                            responseObserver.onNext(response);
+                            serverObserver.request(1);
+                        },
+                        e -> responseObserver.onError(toStatus(e).asRuntimeException()),
+                        responseObserver::onCompleted
+                );
+        serverObserver.setOnCancelHandler(subscription::dispose);
+        serverObserver.request(concurrency);
+
+        // gRPC delivers the messages of a call one at a time
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(TranslateRequest request) {
+                requests.tryEmitNext(request);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                requests.tryEmitError(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                requests.tryEmitComplete();
+            }
+        };
+    }
+
+    private Mono<TranslateResponse> translate(TranslateRequest request) {
+        return Mono
+                .fromCallable(() -> {
+                    var service = service(request);
+                    var elements = toElements(request);
+                    var params = toParams(request.getParams());
+                    return switch (request.getPayloadType()) {
+                        case DOSAGE -> {
+                            validate(DosageRequestDto.builder().dosages(elements).params(params).build());
+                            yield service.translate(PayloadType.DOSAGE, elements, params);
+                        }
+                        case TIMING -> {
+                            validate(TimingRequestDto.builder().timings(elements).params(params).build());
+                            yield service.translate(PayloadType.TIMING, elements, params);
+                        }
+                        default -> throw new IllegalArgumentException("payload_type is required");
+                    };
+                })
+                .flatMap(Function.identity())
+                .map(response -> toResponse(request, response));
+    }
+
+    private TranslationService service(TranslateRequest request) {
+        TranslationService service = switch (request.getFhirVersion()) {
+            case R4 -> r4.getIfAvailable();
+            case R5 -> r5.getIfAvailable();
+            default -> throw new IllegalArgumentException("fhir_version is required");
+        };
+        if (service == null) {
+            throw Status.UNIMPLEMENTED
+                    .withDescription("FHIR " + request.getFhirVersion() + " is disabled")
+                    .asRuntimeException();
+        }
+        return service;
+    }
+
+    private void validate(Object requestDto) {
+        var violations = validator.validate(requestDto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations
+                    .stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private static List<JsonNode> toElements(TranslateRequest request) {
+        List<JsonNode> elements = new ArrayList<>(request.getElementsCount());
+        for (int i = 0; i < request.getElementsCount(); i++) {
+            try {
+                elements.add(MAPPER.readTree(request.getElements(i)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Element " + i + " is not valid JSON", e);
+            }
+        }
+        return elements;
+    }
+
+    private static ParamsDto toParams(Params params) {
+        var builder = ParamsDto.builder();
+        if (params.getLocalesCount() > 0) {
+            builder.locales(params.getLocalesList().stream().map(Locale::forLanguageTag).toList());
+        }
+        if (params.getDisplayOrdersCount() > 0) {
+            builder.displayOrders(params.getDisplayOrdersList().stream().map(DisplayOrder::valueOf).toList());
+        }
+        if (params.hasDisplaySeparator()) {
+            builder.displaySeparator(params.getDisplaySeparator());
+        }
+        if (params.hasUseResultCache()) {
+            builder.useResultCache(params.getUseResultCache());
+        }
+        if (params.hasTimeoutMillis()) {
+            builder.timeoutMillis(params.getTimeoutMillis());
+        }
+        builder.outputFormat(switch (params.getOutputFormat()) {
+            case DETAILED -> OutputFormat.DETAILED;
+            default -> OutputFormat.SUMMARY;
+        });
+        return builder.build();
+    }
+
+    private static TranslateResponse toResponse(TranslateRequest request, DosageResponseDto response) {
+        var builder = TranslateResponse.newBuilder().setCorrelationId(request.getCorrelationId());
+        for (LocalizedDto item : response.getItems()) {
+            builder.addItems(Localized.newBuilder().putAllTranslations(item.getTranslations()));
+        }
+        for (ProblemDetail issue : response.getIssues()) {
+            builder.addIssues(toIssue(issue));
+        }
+        return builder.build();
+    }
+
+    private TranslateResponse errorResponse(TranslateRequest request, Throwable e) {
+        return TranslateResponse.newBuilder()
+                .setCorrelationId(request.getCorrelationId())
+                .addIssues(toIssue(createEntryProblemDetail(e)))
+                .build();
+    }
+
+    private static Issue toIssue(ProblemDetail problem) {
+        var builder = Issue.newBuilder().setStatus(problem.getStatus());
+        if (problem.getType() != null) {
+            builder.setType(problem.getType().toString());
+        }
+        if (problem.getTitle() != null) {
+            builder.setTitle(problem.getTitle());
+        }
+        if (problem.getDetail() != null) {
+            builder.setDetail(problem.getDetail());
+        }
+        if (problem.getProperties() != null) {
+            for (Map.Entry<String, Object> property : problem.getProperties().entrySet()) {
+                builder.putProperties(property.getKey(), String.valueOf(property.getValue()));
+            }
+        }
+        return builder.build();
+    }
+
+    private static Status toStatus(Throwable e) {
+        if (e instanceof StatusRuntimeException statusException) {
+            return statusException.getStatus();
+        }
+        if (e instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage());
+        }
+        if (e instanceof RejectedExecutionException) {
+            return Status.RESOURCE_EXHAUSTED.withDescription("Too many requests in progress");
+        }
+        return Status.INTERNAL.withDescription(e.getMessage()).withCause(e);
+    }
+}
@@ -0,0 +1,483 @@
+package io.github.jy95.fds_services.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jy95.fds_services.dto.StreamItemDto;
+import io.github.jy95.fds_services.enum_.BelgifProblemType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ProblemDetail;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Translates an NDJSON file of elements (one per line) into an NDJSON file of translations, without HTTP.
+ * <p>
+ * Output line n holds the translation of input line n. A blank line gives an empty item, a line that is not JSON
+ * an item with a bad request issue ; or either is copied as is (to enrich resources instead of translating elements).
+ * The input is split on line boundaries into chunks, each memory-mapped and translated by its own thread
+ * into a part file. Completed chunks are recorded in a checkpoint file next to the output :
+ * a new run over the same input, with the same chunk size, only translates the chunks that were not completed.
+ * Parts are concatenated into the output once every chunk is done, then removed after the checkpoint.
+ */
+@Slf4j
+public class NdjsonTranslationJob {
+
+    private static final byte NEW_LINE = '\n';
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final String CHECKPOINT_HEADER = "ndjson-translation-job v1";
+
+    /**
+     * Byte range [start, end) of the input, ending right after a new line (or at the end of the input).
+     */
+    record Chunk(int index, long start, long end) {}
+
+    /**
+     * Outcome of a run.
+     *
+     * @param lines         Lines written to the output.
+     * @param chunks        Chunks the input was split into.
+     * @param resumedChunks Chunks completed by a previous run, not translated again.
+     * @param linesPerSecond Throughput of this run (lines of resumed chunks excluded).
+     */
+    public record Result(long lines, int chunks, int resumedChunks, double linesPerSecond) {}
+
+    private final Path input;
+    private final Path output;
+    private final long chunkSize;
+    private final int concurrency;
+    private final Duration progressInterval;
+    private final Function<Flux<JsonNode>, ? extends Flux<?>> translator;
+    private final boolean copySkippedLines;
+    private final ObjectMapper mapper;
+    private final byte[] emptyLine;
+    private final byte[] invalidLine;
+
+    private final AtomicLong lines = new AtomicLong();
+    private final AtomicInteger completedChunks = new AtomicInteger();
+
+    /**
+     * @param translator       Translates a stream of elements, emitting one item per element, in order.
+     * @param copySkippedLines Whether blank and invalid lines are copied as is, instead of written as items.
+     */
+    public NdjsonTranslationJob(
+            Path input,
+            Path output,
+            long chunkSize,
+            int concurrency,
+            Duration progressInterval,
+            Function<Flux<JsonNode>, ? extends Flux<?>> translator,
+            boolean copySkippedLines,
+            ObjectMapper mapper
+    ) {
+        this.input = input;
+        this.output = output;
+        this.chunkSize = Math.max(1, Math.min(chunkSize, Integer.MAX_VALUE));
+        this.concurrency = Math.max(1, concurrency);
+        this.progressInterval = progressInterval;
+        this.translator = translator;
+        this.copySkippedLines = copySkippedLines;
+        this.mapper = mapper;
+        this.emptyLine = toLine(StreamItemDto.builder().build());
+        this.invalidLine = toLine(StreamItemDto.builder().issue(invalidJson()).build());
+    }
+
+    /**
+     * Lines written so far, across chunks (including the ones of resumed chunks).
+     */
+    public long getLines() {
+        return lines.get();
+    }
+
+    public Result run() throws IOException {
+        long start = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<Chunk> chunks = split(channel);
+            Path parts = siblingOf(output, ".parts");
+            Path checkpoint = siblingOf(output, ".checkpoint");
+
+            Map<Integer, Long> done = readCheckpoint(checkpoint, size);
+            if (done.isEmpty()) {
+                Files.createDirectories(parts);
+                Files.writeString(checkpoint, CHECKPOINT_HEADER + " " + size + " " + chunkSize + "\n");
+            } else {
+                log.info("Resuming {} : {} of {} chunk(s) already translated", input, done.size(), chunks.size());
+            }
+            long resumedLines = done.values().stream().mapToLong(Long::longValue).sum();
+            lines.set(resumedLines);
+            completedChunks.set(done.size());
+
+            List<Chunk> pending = chunks.stream().filter(chunk -> !done.containsKey(chunk.index())).toList();
+            Disposable progress = Flux
+                    .interval(progressInterval)
+                    .subscribe(tick -> logProgress(chunks.size(), start, resumedLines));
+
+            try (FileChannel checkpointChannel = FileChannel.open(checkpoint, StandardOpenOption.APPEND)) {
+                translateAll(channel, pending, parts, checkpointChannel);
+            } finally {
+                progress.dispose();
+            }
+
+            concatenate(chunks, parts);
+            // The checkpoint goes first : once the parts are gone, it must not claim any chunk is done
+            Files.deleteIfExists(checkpoint);
+            for (Chunk chunk : chunks) {
+                Files.deleteIfExists(partOf(parts, chunk));
+            }
+            Files.deleteIfExists(parts);
+
+            logProgress(chunks.size(), start, resumedLines);
+            return new Result(lines.get(), chunks.size(), done.size(), rate(lines.get() - resumedLines, start));
+        }
+    }
+
+    /**
+     * Splits the input in chunks of about chunkSize bytes, each ending on a new line.
+     * Boundaries only depend on the input and the chunk size, so that a resumed run finds the same chunks.
+     */
+    List<Chunk> split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Chunk> chunks = new ArrayList<>();
+        ByteBuffer scan = ByteBuffer.allocate(8 * 1024);
+
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(start + chunkSize, size);
+            // Extend up to the end of the line in progress
+            while (end < size && !endsLine(channel, end - 1, scan)) {
+                end = nextLineStart(channel, end, size, scan);
+            }
+            chunks.add(new Chunk(chunks.size(), start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static boolean endsLine(FileChannel channel, long position, ByteBuffer scan) throws IOException {
+        scan.clear().limit(1);
+        channel.read(scan, position);
+        return scan.get(0) == NEW_LINE;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer scan) throws IOException {
+        long position = from;
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == NEW_LINE) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private void translateAll(FileChannel channel, List<Chunk> pending, Path parts, FileChannel checkpoint)
+            throws IOException {
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "fds-job-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<?>> futures = new ArrayList<>(pending.size());
+            for (Chunk chunk : pending) {
+                futures.add(executor.submit(() -> {
+                    long written = translateChunk(channel, chunk, partOf(parts, chunk));
+                    recordCheckpoint(checkpoint, chunk, written);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            // Completed chunks stay recorded : the next run resumes from there
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IllegalStateException("Translation of " + input + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Translation of " + input + " was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Translates one chunk into its part file, and returns the number of lines written.
+     */
+    private long translateChunk(FileChannel channel, Chunk chunk, Path part) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(), chunk.end() - chunk.start());
+
+        // Lines skipped (blank or invalid) before each element emitted, and after the last one
+        Queue<List<byte[]>> skippedBefore = new ConcurrentLinkedQueue<>();
+        AtomicReference<List<byte[]>> skippedAtEnd = new AtomicReference<>(List.of());
+
+        Flux<JsonNode> elements = Flux.generate(sink -> {
+            List<byte[]> skipped = List.of();
+            while (buffer.hasRemaining()) {
+                byte[] line = nextLine(buffer);
+                JsonNode element = parse(line);
+                if (element != null) {
+                    skippedBefore.add(skipped);
+                    sink.next(element);
+                    return;
+                }
+                if (skipped.isEmpty()) {
+                    skipped = new ArrayList<>(1);
+                }
+                skipped.add(line);
+            }
+            skippedAtEnd.set(skipped);
+            sink.complete();
+        });
+
+        long written = 0;
+        try (FileChannel out = FileChannel.open(
+                part,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+
+            for (Object item : translator.apply(elements).toIterable()) {
+                written += writeSkipped(out, writeBuffer, skippedBefore.remove());
+                write(out, writeBuffer, toLine(item));
+                written++;
+                lines.incrementAndGet();
+            }
+            written += writeSkipped(out, writeBuffer, skippedAtEnd.get());
+
+            flush(out, writeBuffer);
+            out.force(true);
+        }
+        return written;
+    }
+
+    private int writeSkipped(FileChannel out, ByteBuffer buffer, List<byte[]> skipped) throws IOException {
+        for (byte[] line : skipped) {
+            if (copySkippedLines) {
+                write(out, buffer, withNewLine(line));
+            } else {
+                write(out, buffer, isBlank(line) ? emptyLine : invalidLine);
+            }
+        }
+        lines.addAndGet(skipped.size());
+        return skipped.size();
+    }
+
+    private static boolean isBlank(byte[] line) {
+        for (byte b : line) {
+            if (!Character.isWhitespace(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ProblemDetail invalidJson() {
+        BelgifProblemType type = BelgifProblemType.BAD_REQUEST;
+        ProblemDetail problem = ProblemDetail.forStatus(type.getStatus());
+        problem.setType(URI.create(type.getType()));
+        problem.setTitle(type.getTitle());
+        problem.setDetail("Line is not a JSON element");
+        return problem;
+    }
+
+    private static byte[] nextLine(ByteBuffer buffer) {
+        int start = buffer.position();
+        int end = start;
+        while (end < buffer.limit() && buffer.get(end) != NEW_LINE) {
+            end++;
+        }
+        int length = end - start;
+        if (length > 0 && buffer.get(end - 1) == '\r') {
+            length--;
+        }
+
+        byte[] line = new byte[length];
+        buffer.get(start, line);
+        buffer.position(Math.min(end + 1, buffer.limit()));
+        return line;
+    }
+
+    private JsonNode parse(byte[] line) {
+        try {
+            JsonNode node = mapper.readTree(line);
+            return node == null || node.isMissingNode() ? null : node;
+        } catch (JsonProcessingException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] toLine(Object item) {
+        try {
+            return withNewLine(mapper.writeValueAsBytes(item));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] withNewLine(byte[] bytes) {
+        byte[] line = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, line, 0, bytes.length);
+        line[bytes.length] = NEW_LINE;
+        return line;
+    }
+
+    private static void write(FileChannel out, ByteBuffer buffer, byte[] bytes) throws IOException {
+        if (bytes.length > buffer.remaining()) {
+            flush(out, buffer);
+        }
+        if (bytes.length > buffer.capacity()) {
+            writeFully(out, ByteBuffer.wrap(bytes));
+            return;
+        }
+        buffer.put(bytes);
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(out, buffer);
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * Completed chunks (index to lines written), or nothing when there is no checkpoint to resume from.
+     */
+    private Map<Integer, Long> readCheckpoint(Path checkpoint, long size) throws IOException {
+        Map<Integer, Long> done = new HashMap<>();
+        if (!Files.exists(checkpoint)) {
+            return done;
+        }
+
+        List<String> entries = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+        String expected = CHECKPOINT_HEADER + " " + size + " " + chunkSize;
+        if (entries.isEmpty() || !entries.getFirst().equals(expected)) {
+            throw new IllegalStateException(
+                    "Checkpoint " + checkpoint + " was written for another input or chunk size : delete it to start over"
+            );
+        }
+
+        for (String entry : entries.subList(1, entries.size())) {
+            String[] fields = entry.split(" ");
+            // A line cut by a crash is simply ignored : that chunk is translated again
+            if (fields.length == 2) {
+                try {
+                    done.put(Integer.parseInt(fields[0]), Long.parseLong(fields[1]));
+                } catch (NumberFormatException ignored) {
+                    // Same as above
+                }
+            }
+        }
+        return done;
+    }
+
+    private synchronized void recordCheckpoint(FileChannel checkpoint, Chunk chunk, long written) throws IOException {
+        writeFully(checkpoint, ByteBuffer.wrap((chunk.index() + " " + written + "\n").getBytes(StandardCharsets.UTF_8)));
+        checkpoint.force(false);
+        completedChunks.incrementAndGet();
+    }
+
+    /**
+     * Writes the parts into a temporary file, then moves it over the output :
+     * a previous output is only replaced by a complete one.
+     */
+    private void concatenate(List<Chunk> chunks, Path parts) throws IOException {
+        for (Chunk chunk : chunks) {
+            if (!Files.exists(partOf(parts, chunk))) {
+                throw new IllegalStateException(
+                        "Part " + partOf(parts, chunk) + " of a completed chunk is missing : delete the checkpoint to start over"
+                );
+            }
+        }
+
+        Path partial = siblingOf(output, ".tmp");
+        try (FileChannel out = FileChannel.open(
+                partial,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            for (Chunk chunk : chunks) {
+                try (FileChannel in = FileChannel.open(partOf(parts, chunk), StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = in.size();
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+            out.force(true);
+        }
+        Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void logProgress(int chunks, long start, long resumedLines) {
+        log.info(
+                "{} : {} line(s) translated, {}/{} chunk(s) in {} s ({} line(s)/s)",
+                input,
+                lines.get(),
+                completedChunks.get(),
+                chunks,
+                (System.nanoTime() - start) / 1_000_000_000,
+                Math.round(rate(lines.get() - resumedLines, start))
+        );
+    }
+
+    private static double rate(long count, long start) {
+        return count * 1_000_000_000.0 / Math.max(1, System.nanoTime() - start);
+    }
+
+    private static Path partOf(Path parts, Chunk chunk) {
+        return parts.resolve("chunk-%06d.ndjson".formatted(chunk.index()));
+    }
+
+    private static Path siblingOf(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.jy95.fds_services.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jy95.fds_services.config.TranslationJobProperties;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.dto.StreamItemDto;
+import io.github.jy95.fds_services.enum_.TranslationJobMode;
+import io.github.jy95.fds_services.service.BulkDataEnricher;
+import io.github.jy95.fds_services.service.TranslationService;
+import io.github.jy95.fds_services.service.TranslationServiceR4Impl;
+import io.github.jy95.fds_services.service.TranslationServiceR5Impl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Headless mode : translates {@code fds.job.input} into {@code fds.job.output}, then lets the application exit.
+ * <p>
+ * Elements go through the same {@link TranslationService} as the NDJSON endpoints (resolver caches, worker pool,
+ * concurrency limits), minus HTTP. In {@link TranslationJobMode#ENRICH} mode, lines are Bulk Data resources,
+ * written back with their dosage texts (see {@link BulkDataEnricher}).
+ * A failed run can be started again with the same properties to resume it.
+ */
+@Slf4j
+@Component
+@Profile("batch")
+@EnableConfigurationProperties(TranslationJobProperties.class)
+public class TranslationJobRunner implements CommandLineRunner {
+
+    @Autowired
+    private TranslationJobProperties properties;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private BulkDataEnricher enricher;
+
+    /**
+     * Absent when that FHIR version is disabled
+     */
+    @Autowired
+    private ObjectProvider<TranslationServiceR4Impl> r4;
+
+    @Autowired
+    private ObjectProvider<TranslationServiceR5Impl> r5;
+
+    @Override
+    public void run(String... args) throws Exception {
+        var job = new NdjsonTranslationJob(
+                Objects.requireNonNull(properties.getInput(), "fds.job.input is required"),
+                Objects.requireNonNull(properties.getOutput(), "fds.job.output is required"),
+                properties.getChunkSize().toBytes(),
+                properties.getConcurrency(),
+                properties.getProgressInterval(),
+                properties.getMode() == TranslationJobMode.ENRICH ? enricher() : translator(),
+                properties.getMode() == TranslationJobMode.ENRICH,
+                properties.getMode() == TranslationJobMode.ENRICH ? BulkDataEnricher.resourceMapper(mapper) : mapper
+        );
+
+        var result = job.run();
+        log.info(
+                "{} : {} line(s) of {} into {} ({} chunk(s), {} resumed), {} line(s)/s",
+                properties.getMode(),
+                result.lines(),
+                properties.getInput(),
+                properties.getOutput(),
+                result.chunks(),
+                result.resumedChunks(),
+                Math.round(result.linesPerSecond())
+        );
+    }
+
+    private Function<Flux<JsonNode>, Flux<JsonNode>> enricher() {
+        return resources -> enricher.enrich(
+                resources,
+                properties.getFhirVersion(),
+                properties.getTextLocale(),
+                properties.getParams(),
+                properties.isOverwriteText()
+        );
+    }
+
+    private Function<Flux<JsonNode>, Flux<StreamItemDto>> translator() {
+        ParamsDto params = properties.getParams();
+        TranslationService service = switch (properties.getFhirVersion()) {
+            case R4 -> r4.getObject();
+            case R5 -> r5.getObject();
+        };
+        return elements -> service.translateStream(properties.getPayloadType(), elements, params);
+    }
+}
@@ -0,0 +1,261 @@
+package io.github.jy95.fds_services.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.jy95.fds.common.types.DosageAPI;
+import io.github.jy95.fds_services.dto.LocalizedDto;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import io.github.jy95.fds_services.enum_.OutputFormat;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import io.github.jy95.fds_services.utility.TranslationOptions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Fills {@code Dosage.text} of FHIR Bulk Data resources ({@code MedicationRequest.dosageInstruction},
+ * {@code MedicationStatement.dosage}), for a single locale.
+ * <p>
+ * Resources are parsed once, by Jackson : only their dosages are bound to HAPI-FHIR models for translation,
+ * and the text is written back into the original JSON tree, so that anything else in the resource keeps its value
+ * (not its formatting : the resource is written back compact). Resources must be read with
+ * {@link #resourceMapper(ObjectMapper)}, so that FHIR decimals keep their precision.
+ * Other resource types, and resources whose dosages cannot be parsed, go through unchanged.
+ * Outcomes are counted in {@code fds.enrichment.resources} (tag {@code result}).
+ */
+@Service
+public class BulkDataEnricher implements DosageConversionSupport, MeterBinder {
+
+    /**
+     * Absent when that FHIR version is disabled
+     */
+    @Autowired
+    private ObjectProvider<DosageAPICacheR4Impl> cacheR4;
+
+    @Autowired
+    private ObjectProvider<DosageAPICacheR5Impl> cacheR5;
+
+    /**
+     * Parsers are not shared between concurrent requests
+     */
+    @Autowired
+    private FhirParserProvider parsers;
+
+    /**
+     * Bounded pool for CPU-bound work
+     */
+    @Autowired
+    private Scheduler workerScheduler;
+
+    /**
+     * Where translations are started, and how many at once
+     */
+    @Autowired
+    private TranslationOptions translationOptions;
+
+    /**
+     * A mapper that reads decimals exactly as written ({@code 0.50} stays {@code 0.50}), as FHIR requires.
+     * By default, Jackson reads them as doubles : trailing zeros and digits beyond double precision are lost.
+     *
+     * @param mapper Mapper to derive from (left unchanged).
+     * @return A copy of the mapper, for the resources to enrich.
+     */
+    public static ObjectMapper resourceMapper(ObjectMapper mapper) {
+        ObjectMapper copy = mapper.copy();
+        copy.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        copy.configure(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES, false);
+        copy.setNodeFactory(JsonNodeFactory.withExactBigDecimals(true));
+        return copy;
+    }
+
+    private final AtomicLong enriched = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Enriches a stream of resources, in order.
+     *
+     * @param resources Resources, as parsed JSON (modified in place).
+     * @param version   FHIR version of the resources.
+     * @param locale    Locale of the generated texts.
+     * @param params    Display params of the generated texts (output format and locales are ignored).
+     * @param overwrite Whether dosages that already have a text get a new one.
+     * @return The same resources, in the same order.
+     */
+    public Flux<JsonNode> enrich(
+            Flux<JsonNode> resources,
+            FhirVersion version,
+            Locale locale,
+            ParamsDto params,
+            boolean overwrite
+    ) {
+        return switch (version) {
+            case R4 -> enrich(
+                    resources,
+                    () -> cacheR4.getObject().getCreator(locale, params),
+                    nodes -> parsers.withJsonParser(
+                            FhirVersion.R4,
+                            parser -> validateAndExtractDosages(
+                                    nodes,
+                                    parser,
+                                    org.hl7.fhir.r4.model.MedicationRequest.class,
+                                    r -> ((org.hl7.fhir.r4.model.MedicationRequest) r).getDosageInstruction(),
+                                    OutputFormat.DETAILED
+                            )
+                    ),
+                    locale,
+                    overwrite
+            );
+            case R5 -> enrich(
+                    resources,
+                    () -> cacheR5.getObject().getCreator(locale, params),
+                    nodes -> parsers.withJsonParser(
+                            FhirVersion.R5,
+                            parser -> validateAndExtractDosages(
+                                    nodes,
+                                    parser,
+                                    org.hl7.fhir.r5.model.MedicationRequest.class,
+                                    r -> ((org.hl7.fhir.r5.model.MedicationRequest) r).getDosageInstruction(),
+                                    OutputFormat.DETAILED
+                            )
+                    ),
+                    locale,
+                    overwrite
+            );
+        };
+    }
+
+    private <D> Flux<JsonNode> enrich(
+            Flux<JsonNode> resources,
+            Callable<? extends DosageAPI<?, D>> resolverLookup,
+            Function<List<JsonNode>, List<List<D>>> extract,
+            Locale locale,
+            boolean overwrite
+    ) {
+        // Translations of a resource are started together : the per-request cap bounds the resources in flight
+        int resourcesInFlight = Math.max(1, Math.min(translationOptions.maxConcurrency(), MAX_STREAM_TRANSLATIONS));
+        var options = new TranslationOptions(
+                translationOptions.scheduler(),
+                Integer.MAX_VALUE,
+                translationOptions.globalLimiter(),
+                null,
+                translationOptions.deduplication()
+        );
+
+        return Mono
+                .fromCallable(resolverLookup)
+                // Resolver construction must not run on the event loop
+                .subscribeOn(workerScheduler)
+                .flatMapMany(resolver -> resources
+                        .publishOn(workerScheduler)
+                        .flatMapSequential(
+                                resource -> enrichResource(resource, extract, resolver, locale, overwrite, options),
+                                resourcesInFlight,
+                                1
+                        ));
+    }
+
+    private <D> Mono<JsonNode> enrichResource(
+            JsonNode resource,
+            Function<List<JsonNode>, List<List<D>>> extract,
+            DosageAPI<?, D> resolver,
+            Locale locale,
+            boolean overwrite,
+            TranslationOptions options
+    ) {
+        List<ObjectNode> targets = dosagesToFill(resource, overwrite);
+        if (targets.isEmpty()) {
+            unchanged.incrementAndGet();
+            return Mono.just(resource);
+        }
+
+        return Mono
+                .fromCallable(() -> extract.apply(List.<JsonNode>copyOf(targets)))
+                .flatMap(dosages -> {
+                    // HAPI skips what it cannot bind : texts would no longer line up with their dosages
+                    if (dosages.size() != targets.size()) {
+                        return Mono.error(new IllegalArgumentException("Some dosages could not be parsed"));
+                    }
+                    return translateDosagesWithIssues(dosages, List.of(locale), Map.of(locale, resolver), options);
+                })
+                .map(response -> {
+                    boolean filled = false;
+                    for (int i = 0; i < targets.size(); i++) {
+                        String text = textOf(response.getItems(), i, locale);
+                        if (text != null) {
+                            targets.get(i).put("text", text);
+                            filled = true;
+                        }
+                    }
+                    (filled ? enriched : failed).incrementAndGet();
+                    return resource;
+                })
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    failed.incrementAndGet();
+                    return Mono.just(resource);
+                });
+    }
+
+    /**
+     * Dosages of the resource that should get a text, if it is a resource carrying dosages.
+     */
+    private static List<ObjectNode> dosagesToFill(JsonNode resource, boolean overwrite) {
+        String field = switch (resource.path("resourceType").asText()) {
+            case "MedicationRequest" -> "dosageInstruction";
+            case "MedicationStatement" -> "dosage";
+            default -> null;
+        };
+        if (field == null || !(resource.get(field) instanceof ArrayNode dosages)) {
+            return List.of();
+        }
+
+        List<ObjectNode> targets = new ArrayList<>(dosages.size());
+        for (JsonNode dosage : dosages) {
+            if (dosage instanceof ObjectNode node && (overwrite || !node.hasNonNull("text"))) {
+                targets.add(node);
+            }
+        }
+        return targets;
+    }
+
+    private static String textOf(List<LocalizedDto> items, int index, Locale locale) {
+        if (index >= items.size()) {
+            return null;
+        }
+        return items.get(index).getTranslations().get(locale.getLanguage());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("fds.enrichment.resources", enriched, AtomicLong::get)
+                .description("Bulk Data resources processed by the enrichment pipeline")
+                .tag("result", "enriched")
+                .register(registry);
+        FunctionCounter.builder("fds.enrichment.resources", unchanged, AtomicLong::get)
+                .tag("result", "unchanged")
+                .register(registry);
+        FunctionCounter.builder("fds.enrichment.resources", failed, AtomicLong::get)
+                .tag("result", "failed")
+                .register(registry);
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.jy95.fds_services.service;
+
+import java.util.List;
+
+/**
+ * Cached translations of a payload for one locale, with the time they were translated.
+ * <p>
+ * The write time travels with the translations between the on-heap cache and the off-heap tier,
+ * so that moving an entry from one tier to the other never extends its lifetime.
+ *
+ * @param translations Translation of every group of the payload.
+ * @param writtenAt    {@link System#nanoTime()} when they were translated.
+ */
+public record CachedTranslations(List<String> translations, long writtenAt) {
+
+    /**
+     * Translations made just now.
+     */
+    public static CachedTranslations of(List<String> translations) {
+        return new CachedTranslations(translations, System.nanoTime());
+    }
+
+    /**
+     * Time left before these translations expire, never negative.
+     *
+     * @param now                   {@link System#nanoTime()} now.
+     * @param expireAfterWriteNanos Lifetime of translations.
+     */
+    public long remainingNanos(long now, long expireAfterWriteNanos) {
+        return Math.max(0, expireAfterWriteNanos - (now - writtenAt));
+    }
+}
@@ -2,19 +2,21 @@ package io.github.jy95.fds_services.service;
 
 import io.github.jy95.fds.r4.DosageAPIR4;
 import io.github.jy95.fds.r4.config.FDSConfigR4;
+import io.github.jy95.fds_services.config.CacheConfig;
+import io.github.jy95.fds_services.config.FhirContextConfig;
 import io.github.jy95.fds_services.dto.ParamsDto;
-import jakarta.annotation.PostConstruct;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Locale;
 
 @Service
+@ConditionalOnProperty(name = FhirContextConfig.R4_ENABLED, havingValue = "true", matchIfMissing = true)
 public class DosageAPICacheR4Impl implements DosageAPICache<ParamsDto, DosageAPIR4> {
 
     @Override
-    @Cacheable(cacheNames = "dosageApiCacheR4", keyGenerator = "dosageApiKeyGenerator")
+    @Cacheable(cacheNames = CacheConfig.R4_CACHE, keyGenerator = "dosageApiKeyGenerator", sync = true)
     public DosageAPIR4 getCreator(Locale locale, ParamsDto params) {
         return new DosageAPIR4(
                 FDSConfigR4
@@ -25,21 +27,4 @@ public class DosageAPICacheR4Impl implements DosageAPICache<ParamsDto, DosageAPI
                         .build()
         );
     }
-
-    @PostConstruct
-    public void preloadDefaults() {
-
-        List<Locale> defaultLocales = List.of(
-                Locale.ENGLISH,
-                Locale.FRENCH,
-                Locale.GERMAN,
-                Locale.forLanguageTag("nl")
-        );
-
-        ParamsDto defaultParams = ParamsDto.builder().build();
-
-        for (Locale locale : defaultLocales) {
-            getCreator(locale, defaultParams);
-        }
-    }
 }
@@ -2,19 +2,21 @@ package io.github.jy95.fds_services.service;
 
 import io.github.jy95.fds.r5.DosageAPIR5;
 import io.github.jy95.fds.r5.config.FDSConfigR5;
+import io.github.jy95.fds_services.config.CacheConfig;
+import io.github.jy95.fds_services.config.FhirContextConfig;
 import io.github.jy95.fds_services.dto.ParamsDto;
-import jakarta.annotation.PostConstruct;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Locale;
 
 @Service
+@ConditionalOnProperty(name = FhirContextConfig.R5_ENABLED, havingValue = "true", matchIfMissing = true)
 public class DosageAPICacheR5Impl implements DosageAPICache<ParamsDto, DosageAPIR5> {
 
     @Override
-    @Cacheable(cacheNames = "dosageApiCacheR5", keyGenerator = "dosageApiKeyGenerator")
+    @Cacheable(cacheNames = CacheConfig.R5_CACHE, keyGenerator = "dosageApiKeyGenerator", sync = true)
     public DosageAPIR5 getCreator(Locale locale, ParamsDto params) {
         return new DosageAPIR5(
                 FDSConfigR5
@@ -25,21 +27,4 @@ public class DosageAPICacheR5Impl implements DosageAPICache<ParamsDto, DosageAPI
                         .build()
         );
     }
-
-    @PostConstruct
-    public void preloadDefaults() {
-
-        List<Locale> defaultLocales = List.of(
-                Locale.ENGLISH,
-                Locale.FRENCH,
-                Locale.GERMAN,
-                Locale.forLanguageTag("nl")
-        );
-
-        ParamsDto defaultParams = ParamsDto.builder().build();
-
-        for (Locale locale : defaultLocales) {
-            getCreator(locale, defaultParams);
-        }
-    }
 }
@@ -0,0 +1,15 @@
+package io.github.jy95.fds_services.service;
+
+import ca.uhn.fhir.parser.IParser;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+
+import java.util.function.Function;
+
+public interface FhirParserProvider {
+
+    /**
+     * Runs the work with a JSON parser that no other thread uses meanwhile.
+     * The parser must not escape the work.
+     */
+    <T> T withJsonParser(FhirVersion version, Function<IParser, T> work);
+}
@@ -0,0 +1,68 @@
+package io.github.jy95.fds_services.service;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import io.github.jy95.fds_services.config.FhirParserProperties;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Bounded pools of HAPI JSON parsers.
+ * <p>
+ * A {@link FhirContext} is thread-safe, but the parsers it creates are not documented as such.
+ * Each work borrows a parser for its exclusive use and gives it back afterwards.
+ * When the pool is empty, a new parser is created instead of waiting (they are cheap once the context is initialized),
+ * and parsers given back to a full pool are dropped.
+ */
+@Service
+@EnableConfigurationProperties(FhirParserProperties.class)
+public class FhirParserProviderImpl implements FhirParserProvider {
+
+    private final Map<FhirVersion, ObjectProvider<FhirContext>> contexts = new EnumMap<>(FhirVersion.class);
+    private final Map<FhirVersion, BlockingQueue<IParser>> pools = new EnumMap<>(FhirVersion.class);
+
+    public FhirParserProviderImpl(
+            FhirParserProperties properties,
+            @Qualifier("fhirContextR4") ObjectProvider<FhirContext> contextR4,
+            @Qualifier("fhirContextR5") ObjectProvider<FhirContext> contextR5
+    ) {
+        // Contexts are lazy beans, only resolved when the first parser of that version is needed
+        contexts.put(FhirVersion.R4, contextR4);
+        contexts.put(FhirVersion.R5, contextR5);
+        for (FhirVersion version : FhirVersion.values()) {
+            pools.put(version, new ArrayBlockingQueue<>(Math.max(1, properties.getPoolSize())));
+        }
+    }
+
+    @Override
+    public <T> T withJsonParser(FhirVersion version, Function<IParser, T> work) {
+        BlockingQueue<IParser> pool = pools.get(version);
+        IParser parser = pool.poll();
+        if (parser == null) {
+            parser = newJsonParser(version);
+        }
+
+        try {
+            return work.apply(parser);
+        } finally {
+            pool.offer(parser);
+        }
+    }
+
+    private IParser newJsonParser(FhirVersion version) {
+        FhirContext context = contexts.get(version).getIfAvailable();
+        if (context == null) {
+            throw new IllegalStateException("FHIR " + version + " is disabled");
+        }
+        return context.newJsonParser();
+    }
+}
@@ -1,13 +1,27 @@
 package io.github.jy95.fds_services.service;
 
 import io.github.jy95.fds_services.enum_.HealthStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 @Service
 public class HealthServiceImpl implements HealthService {
+
+    /**
+     * Readiness is only reached once startup (including the resolver warm-up) completed.
+     */
+    @Autowired
+    private ApplicationAvailability availability;
+
     @Override
     public Mono<HealthStatus> checkSystemHealth() {
-        return Mono.just(HealthStatus.UP);
+        return Mono.fromSupplier(() ->
+                availability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC
+                        ? HealthStatus.UP
+                        : HealthStatus.DOWN
+        );
     }
 }
@@ -0,0 +1,193 @@
+package io.github.jy95.fds_services.service;
+
+import io.github.jy95.fds_services.generator.TranslationResultKey;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Off-heap second tier of the translation result cache.
+ * <p>
+ * Translations evicted from the on-heap cache are written into direct {@link ByteBuffer} segments, used as a ring :
+ * when the current segment is full, the oldest one is recycled and the entries it held are dropped.
+ * Only the index (key to location) stays on heap, so the GC does not have to trace the translated strings.
+ * Entries keep the time they were first translated (see {@link CachedTranslations}) : they expire at the same time
+ * as they would have on heap, however often they move between the tiers.
+ * A capacity of zero disables the tier.
+ */
+public class OffHeapTranslationStore implements MeterBinder {
+
+    private static final int SEGMENTS = 16;
+
+    /**
+     * Where an entry lives, and in which generation of its segment.
+     */
+    private record Location(int segment, long generation, int offset, int length, long writtenAt) {}
+
+    private final ByteBuffer[] segments;
+    private final long[] generations;
+    private final List<List<TranslationResultKey>> segmentKeys;
+    private final Map<TranslationResultKey, Location> index = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long expireAfterWriteNanos;
+    private final long capacity;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private int current;
+
+    public OffHeapTranslationStore(long capacity, Duration expireAfterWrite) {
+        int segmentSize = (int) Math.min(capacity / SEGMENTS, Integer.MAX_VALUE);
+        int count = segmentSize > 0 ? SEGMENTS : 0;
+
+        this.capacity = (long) segmentSize * count;
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.segments = new ByteBuffer[count];
+        this.generations = new long[count];
+        this.segmentKeys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            segments[i] = ByteBuffer.allocateDirect(segmentSize);
+            segmentKeys.add(new ArrayList<>());
+        }
+    }
+
+    public boolean isEnabled() {
+        return segments.length > 0;
+    }
+
+    /**
+     * Returns the translations stored for that key, or null.
+     */
+    public CachedTranslations get(TranslationResultKey key) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        Location location = index.get(key);
+        if (location == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        byte[] bytes = new byte[location.length()];
+        lock.readLock().lock();
+        try {
+            if (generations[location.segment()] != location.generation()) {
+                misses.incrementAndGet();
+                return null;
+            }
+            segments[location.segment()].get(location.offset(), bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (System.nanoTime() - location.writtenAt() >= expireAfterWriteNanos) {
+            index.remove(key, location);
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return new CachedTranslations(decode(bytes), location.writtenAt());
+    }
+
+    /**
+     * Stores the translations for that key, possibly recycling the oldest segment.
+     */
+    public void put(TranslationResultKey key, CachedTranslations translations) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        byte[] bytes = encode(translations.translations());
+        if (bytes.length > segments[0].capacity()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            ByteBuffer segment = segments[current];
+            if (segment.remaining() < bytes.length) {
+                current = (current + 1) % segments.length;
+                recycle(current);
+                segment = segments[current];
+            }
+
+            int offset = segment.position();
+            segment.put(bytes);
+            segmentKeys.get(current).add(key);
+            index.put(key, new Location(current, generations[current], offset, bytes.length, translations.writtenAt()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Must be called while holding the write lock
+    private void recycle(int segment) {
+        generations[segment]++;
+        segments[segment].clear();
+        for (TranslationResultKey key : segmentKeys.get(segment)) {
+            index.computeIfPresent(key, (k, location) -> location.segment() == segment ? null : location);
+        }
+        segmentKeys.get(segment).clear();
+    }
+
+    private static byte[] encode(List<String> translations) {
+        List<byte[]> encoded = new ArrayList<>(translations.size());
+        int size = Integer.BYTES;
+        for (String translation : translations) {
+            byte[] bytes = translation.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            size += Integer.BYTES + bytes.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(encoded.size());
+        for (byte[] bytes : encoded) {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+        return buffer.array();
+    }
+
+    private static List<String> decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int count = buffer.getInt();
+        List<String> translations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getInt();
+            translations.add(new String(bytes, buffer.position(), length, StandardCharsets.UTF_8));
+            buffer.position(buffer.position() + length);
+        }
+        return List.copyOf(translations);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("fds.cache.result.offheap.entries", index, Map::size)
+                .description("Translations held by the off-heap tier")
+                .register(registry);
+        Gauge.builder("fds.cache.result.offheap.capacity", this, store -> store.capacity)
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("fds.cache.result.offheap.gets", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("fds.cache.result.offheap.gets", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(registry);
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.jy95.fds_services.service;
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical requests.
+ * <p>
+ * While a request is in flight, other requests with the same key subscribe to its result instead of redoing the work.
+ * The work is cancelled once every subscriber went away, and the key is released as soon as the work terminates.
+ * Subscribers arriving between the result and the release of the key get the same result, without redoing the work.
+ */
+@Service
+public class RequestCoalescer {
+
+    private final Map<Object, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the work, unless the same key is already in flight.
+     *
+     * @param key  Identity of the work.
+     * @param work Supplies the work to share.
+     * @param <T>  Type of the result.
+     * @return A Mono emitting the (possibly shared) result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> coalesce(Object key, Supplier<Mono<T>> work) {
+        return Mono.defer(() -> (Mono<T>) inFlight.computeIfAbsent(key, k -> share(k, work)));
+    }
+
+    /**
+     * Number of distinct requests in flight.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private <T> Mono<T> share(Object key, Supplier<Mono<T>> work) {
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+        Mono<T> shared = Mono
+                .defer(work)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .share();
+        self.set(shared);
+        return shared;
+    }
+}
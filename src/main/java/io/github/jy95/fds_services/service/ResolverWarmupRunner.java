@@ -0,0 +1,117 @@
+package io.github.jy95.fds_services.service;
+
+import io.github.jy95.fds.common.types.DosageAPI;
+import io.github.jy95.fds_services.config.WarmupProperties;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Warms up the resolver caches before the application accepts traffic.
+ * <p>
+ * Runners are executed before Spring Boot publishes {@code ReadinessState.ACCEPTING_TRAFFIC},
+ * so the instance reports itself as not ready (see {@link HealthServiceImpl}) until this completes.
+ * Resolvers are requested through the injected (proxied) caches, so they end up in the {@code @Cacheable} caches,
+ * and a synthetic translation is run with each of them to load resource bundles and let the JIT kick in.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(WarmupProperties.class)
+public class ResolverWarmupRunner implements ApplicationRunner {
+
+    @Autowired
+    private WarmupProperties properties;
+
+    /**
+     * Absent when that FHIR version is disabled
+     */
+    @Autowired
+    private ObjectProvider<DosageAPICacheR4Impl> cacheR4;
+
+    @Autowired
+    private ObjectProvider<DosageAPICacheR5Impl> cacheR5;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int entries = 0;
+
+        for (FhirVersion version : properties.getFhirVersions()) {
+            if (!isEnabled(version)) {
+                continue;
+            }
+            for (ParamsDto params : properties.getParams()) {
+                for (Locale locale : properties.getLocales()) {
+                    warmup(version, locale, params);
+                    entries++;
+                }
+            }
+        }
+
+        log.info("Warmed up {} resolver(s) in {} ms", entries, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void warmup(FhirVersion version, Locale locale, ParamsDto params) {
+        try {
+            switch (version) {
+                case R4 -> translate(cacheR4.getObject().getCreator(locale, params), sampleDosageR4());
+                case R5 -> translate(cacheR5.getObject().getCreator(locale, params), sampleDosageR5());
+            }
+        } catch (Exception e) {
+            // A failed entry is simply built on first use
+            log.warn("Warm-up failed for {} / {} : {}", version, locale.toLanguageTag(), e.getMessage());
+        }
+    }
+
+    private boolean isEnabled(FhirVersion version) {
+        return switch (version) {
+            case R4 -> cacheR4.getIfAvailable() != null;
+            case R5 -> cacheR5.getIfAvailable() != null;
+        };
+    }
+
+    private <D> void translate(DosageAPI<?, D> resolver, D dosage) {
+        resolver.asHumanReadableText(List.of(dosage)).join();
+    }
+
+    // 2 times every day - 30 minutes before meal - for 10 days
+    private org.hl7.fhir.r4.model.Dosage sampleDosageR4() {
+        var repeat = new org.hl7.fhir.r4.model.Timing.TimingRepeatComponent()
+                .setFrequency(2)
+                .setPeriod(1)
+                .setPeriodUnit(org.hl7.fhir.r4.model.Timing.UnitsOfTime.D)
+                .setOffset(30)
+                .setBounds(new org.hl7.fhir.r4.model.Duration().setValue(10).setCode("d"));
+        repeat.addWhen(org.hl7.fhir.r4.model.Timing.EventTiming.AC);
+
+        return new org.hl7.fhir.r4.model.Dosage()
+                .setTiming(new org.hl7.fhir.r4.model.Timing().setRepeat(repeat));
+    }
+
+    // 2 times every day - 30 minutes before meal - for 10 days
+    private org.hl7.fhir.r5.model.Dosage sampleDosageR5() {
+        var repeat = new org.hl7.fhir.r5.model.Timing.TimingRepeatComponent()
+                .setFrequency(2)
+                .setPeriod(1)
+                .setPeriodUnit(org.hl7.fhir.r5.model.Timing.UnitsOfTime.D)
+                .setOffset(30)
+                .setBounds(new org.hl7.fhir.r5.model.Duration().setValue(10).setCode("d"));
+        repeat.addWhen(org.hl7.fhir.r5.model.Timing.EventTiming.AC);
+
+        return new org.hl7.fhir.r5.model.Dosage()
+                .setTiming(new org.hl7.fhir.r5.model.Timing().setRepeat(repeat));
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.jy95.fds_services.service;
+
+import io.github.jy95.fds_services.config.CacheConfig;
+import io.github.jy95.fds_services.config.ResultCacheProperties;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.dto.LocalizedDto;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import io.github.jy95.fds_services.enum_.PayloadType;
+import io.github.jy95.fds_services.generator.DosageApiKey;
+import io.github.jy95.fds_services.generator.PayloadDigest;
+import io.github.jy95.fds_services.generator.TranslationResultKey;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Content-addressed cache of translations, sitting in front of the parse / translate pipeline.
+ * <p>
+ * For each requested locale, it stores the translation of every group of the payload, keyed by
+ * (FHIR version, payload type, canonical payload hash, locale and display params, output format).
+ * When all requested locales are cached, the pipeline is not invoked at all (no HAPI parsing, no translation).
+ * Otherwise, only the missing locales are translated.
+ * On-heap misses fall through to the (optional) {@link OffHeapTranslationStore} before recomputing.
+ */
+@Service
+public class TranslationResultCache {
+
+    private final Cache cache;
+    private final OffHeapTranslationStore offHeapStore;
+    private final boolean enabled;
+
+    public TranslationResultCache(
+            CacheManager cacheManager,
+            OffHeapTranslationStore offHeapStore,
+            ResultCacheProperties properties
+    ) {
+        this.cache = cacheManager.getCache(CacheConfig.RESULT_CACHE);
+        this.offHeapStore = offHeapStore;
+        this.enabled = properties.isEnabled();
+    }
+
+    /**
+     * Translates a payload, reusing cached translations whenever possible.
+     *
+     * @param fhirVersion FHIR version of the payload.
+     * @param payloadType Dosages or timings.
+     * @param digest      SHA-256 of the canonical JSON of the payload (see {@link PayloadDigest}).
+     * @param params      Request params.
+     * @param translator  Translates the payload for the given locales (parsing included).
+     * @return A Mono emitting the translations and any issues.
+     */
+    public Mono<DosageResponseDto> translate(
+            FhirVersion fhirVersion,
+            PayloadType payloadType,
+            String digest,
+            ParamsDto params,
+            Function<List<Locale>, Mono<DosageResponseDto>> translator
+    ) {
+        var locales = params.getLocales();
+
+        // Without locales, there is nothing to cache (nor to merge)
+        if (!enabled || !params.isUseResultCache() || locales.isEmpty()) {
+            return translator.apply(locales);
+        }
+
+        Map<Locale, TranslationResultKey> keys = new LinkedHashMap<>();
+        Map<Locale, List<String>> cached = new LinkedHashMap<>();
+        List<Locale> missing = new ArrayList<>();
+
+        for (Locale locale : locales) {
+            if (keys.containsKey(locale)) {
+                continue;
+            }
+            var key = new TranslationResultKey(
+                    fhirVersion,
+                    payloadType,
+                    digest,
+                    DosageApiKey.of(locale, params),
+                    params.getOutputFormat()
+            );
+            keys.put(locale, key);
+
+            List<String> translations = lookup(key);
+            if (translations != null) {
+                cached.put(locale, translations);
+            } else {
+                missing.add(locale);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return Mono.just(
+                    DosageResponseDto
+                            .builder()
+                            .items(mergeItems(locales, cached.values().iterator().next().size(), List.of(), cached))
+                            .build()
+            );
+        }
+
+        return Mono
+                .defer(() -> translator.apply(missing))
+                .map(response -> {
+                    store(response, missing, keys);
+                    return DosageResponseDto
+                            .builder()
+                            .items(mergeItems(locales, response.getItems().size(), response.getItems(), cached))
+                            .issues(response.getIssues())
+                            .build();
+                });
+    }
+
+    /**
+     * Looks up the on-heap cache, then the off-heap tier (promoting its hits back on heap, with their write time).
+     */
+    private List<String> lookup(TranslationResultKey key) {
+        CachedTranslations translations = cache.get(key, CachedTranslations.class);
+        if (translations == null) {
+            translations = offHeapStore.get(key);
+            if (translations != null) {
+                cache.put(key, translations);
+            }
+        }
+        return translations != null ? translations.translations() : null;
+    }
+
+    /**
+     * Caches the translations of the locales that were fully translated, without issues.
+     */
+    private void store(DosageResponseDto response, List<Locale> locales, Map<Locale, TranslationResultKey> keys) {
+        for (Locale locale : locales) {
+            String tag = locale.toLanguageTag();
+            boolean failed = response
+                    .getIssues()
+                    .stream()
+                    .anyMatch(issue -> issue.getProperties() != null && tag.equals(issue.getProperties().get("locale")));
+
+            List<String> translations = response
+                    .getItems()
+                    .stream()
+                    .map(item -> item.getTranslations().get(locale.getLanguage()))
+                    .toList();
+
+            if (!failed && !translations.isEmpty() && translations.stream().allMatch(Objects::nonNull)) {
+                cache.put(keys.get(locale), CachedTranslations.of(translations));
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the items, with translations in the requested locale order.
+     */
+    private List<LocalizedDto> mergeItems(
+            List<Locale> locales,
+            int size,
+            List<LocalizedDto> translated,
+            Map<Locale, List<String>> cached
+    ) {
+        List<LocalizedDto> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            var builder = LocalizedDto.builder();
+            for (Locale locale : locales) {
+                var fromCache = cached.get(locale);
+                String value = fromCache != null
+                        ? fromCache.get(i)
+                        : translated.get(i).getTranslations().get(locale.getLanguage());
+                if (value != null) {
+                    builder.entry(locale.getLanguage(), value);
+                }
+            }
+            items.add(builder.build());
+        }
+        return items;
+    }
+}
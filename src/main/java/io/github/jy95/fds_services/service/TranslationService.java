@@ -0,0 +1,74 @@
+package io.github.jy95.fds_services.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.dto.StreamItemDto;
+import io.github.jy95.fds_services.enum_.PayloadType;
+import io.github.jy95.fds_services.utility.DosageConversionSupport.TranslationResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Translates dosages and timings of one FHIR version, whatever the transport (REST, gRPC, batch job).
+ * <p>
+ * Every caller gets the same pipeline : worker pool, resolver cache, result cache, request coalescing,
+ * deadlines and concurrency limits. Requests are expected to be validated already.
+ * Parsing and resolver construction never run on the calling thread, which may be an event loop.
+ */
+public interface TranslationService {
+
+    /**
+     * Translates the elements of a request.
+     * Identical requests in flight share the same work, which only translates the locales not already cached.
+     *
+     * @param payloadType Kind of the elements.
+     * @param elements    Elements (dosages or timings), as HAPI-FHIR JSON.
+     * @param params      Params of the request.
+     * @return Translations and issues of the request.
+     */
+    Mono<DosageResponseDto> translate(PayloadType payloadType, List<JsonNode> elements, ParamsDto params);
+
+    /**
+     * Translates independent requests, and returns their responses in their order.
+     * Identical requests are translated once, and a request that fails only fails its own response.
+     * Beyond identical requests, a dosage group is translated once per locale and display params for the whole batch,
+     * whichever requests it appears in.
+     *
+     * @param payloadType Kind of the elements.
+     * @param entries     Requests of the batch.
+     * @param elementsOf  Elements of a request.
+     * @param paramsOf    Params of a request.
+     * @param <Q>         Type of the requests.
+     * @return One response per request.
+     */
+    <Q> Mono<List<DosageResponseDto>> translateBatch(
+            PayloadType payloadType,
+            List<Q> entries,
+            Function<Q, List<JsonNode>> elementsOf,
+            Function<Q, ParamsDto> paramsOf
+    );
+
+    /**
+     * Translates the elements of a request, emitting each group as soon as it is ready, in input order.
+     *
+     * @param payloadType Kind of the elements.
+     * @param elements    Elements (dosages or timings), as HAPI-FHIR JSON.
+     * @param params      Params of the request.
+     * @return Translations and issues of each group.
+     */
+    Flux<TranslationResult> translateProgressively(PayloadType payloadType, List<JsonNode> elements, ParamsDto params);
+
+    /**
+     * Translates a stream of elements, one output item per input element, in input order.
+     *
+     * @param payloadType Kind of the elements.
+     * @param elements    Elements (dosages or timings), as HAPI-FHIR JSON.
+     * @param params      Params of the whole stream.
+     * @return Translations and issues of each element.
+     */
+    Flux<StreamItemDto> translateStream(PayloadType payloadType, Flux<JsonNode> elements, ParamsDto params);
+}
@@ -0,0 +1,308 @@
+package io.github.jy95.fds_services.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.jy95.fds.r5.DosageAPIR5;
+import io.github.jy95.fds_services.config.BatchProperties;
+import io.github.jy95.fds_services.config.FhirContextConfig;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.dto.StreamItemDto;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import io.github.jy95.fds_services.enum_.OutputFormat;
+import io.github.jy95.fds_services.enum_.PayloadType;
+import io.github.jy95.fds_services.generator.DosageApiKey;
+import io.github.jy95.fds_services.generator.PayloadDigest;
+import io.github.jy95.fds_services.generator.RequestKey;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import io.github.jy95.fds_services.utility.SharedTranslations;
+import io.github.jy95.fds_services.utility.TimingConversionSupport;
+import io.github.jy95.fds_services.utility.TranslationOptions;
+import org.hl7.fhir.r5.model.Dosage;
+import org.hl7.fhir.r5.model.MedicationRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Service
+@ConditionalOnProperty(name = FhirContextConfig.R5_ENABLED, havingValue = "true", matchIfMissing = true)
+public class TranslationServiceR5Impl implements TranslationService, DosageConversionSupport, TimingConversionSupport {
+
+    /**
+     * The shared cache, for reusable requests
+     */
+    @Autowired
+    private DosageAPICacheR5Impl cache;
+
+    /**
+     * The translation result cache
+     */
+    @Autowired
+    private TranslationResultCache resultCache;
+
+    /**
+     * Shares the work of identical requests in flight
+     */
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    /**
+     * Parsers are not shared between concurrent requests
+     */
+    @Autowired
+    private FhirParserProvider parsers;
+
+    /**
+     * Bounded pool for CPU-bound work
+     */
+    @Autowired
+    private Scheduler workerScheduler;
+
+    /**
+     * Where translations are started, and how many at once
+     */
+    @Autowired
+    private TranslationOptions translationOptions;
+
+    /**
+     * How many entries of a batch are processed at once
+     */
+    @Autowired
+    private BatchProperties batchProperties;
+
+    @Override
+    public Mono<DosageResponseDto> translate(PayloadType payloadType, List<JsonNode> elements, ParamsDto params) {
+        // The latency budget starts once the body is read, waiting for a worker included
+        var options = translationOptions.withTimeout(params.getTimeoutMillis());
+        return Mono
+                .defer(() -> translate(
+                        requestKey(payloadType, elements, params),
+                        params,
+                        () -> extract(payloadType, elements, params.getOutputFormat()),
+                        cache::getCreator,
+                        options
+                ))
+                // Hashing, parsing and resolver construction must not run on the event loop
+                .subscribeOn(workerScheduler);
+    }
+
+    /**
+     * Translates dosages already parsed (e.g. those of a MedicationRequest), one item per dosage.
+     * Like any other request, they go through the result cache and share the work of identical requests in flight.
+     * Must not be called from the event loop.
+     *
+     * @param dosages Dosages to translate.
+     * @param params  Params of the request, whatever their output format.
+     * @param readAt  {@link System#nanoTime()} at which the request was read, when its latency budget started.
+     * @return Translations and issues of the dosages.
+     */
+    public Mono<DosageResponseDto> translateDosages(List<Dosage> dosages, ParamsDto params, long readAt) {
+        var detailed = params.toBuilder().outputFormat(OutputFormat.DETAILED).build();
+        return translate(
+                requestKey(PayloadType.DOSAGE, encode(dosages), detailed),
+                detailed,
+                () -> dosages.stream().map(List::of).toList(),
+                cache::getCreator,
+                translationOptions.withTimeout(params.getTimeoutMillis(), readAt)
+        );
+    }
+
+    @Override
+    public <Q> Mono<List<DosageResponseDto>> translateBatch(
+            PayloadType payloadType,
+            List<Q> entries,
+            Function<Q, List<JsonNode>> elementsOf,
+            Function<Q, ParamsDto> paramsOf
+    ) {
+        // The latency budget of every entry starts once the body is read, waiting for a worker included
+        long readAt = System.nanoTime();
+        return Mono
+                .defer(() -> {
+                    // Each (locale, display params) resolver is looked up once for the whole batch.
+                    // The lookup may build a resolver : it stays out of the map lock, a rare duplicate is dropped.
+                    Map<DosageApiKey, DosageAPIR5> batchResolvers = new ConcurrentHashMap<>();
+                    BiFunction<Locale, ParamsDto, DosageAPIR5> resolverLookup = (locale, params) -> {
+                        var key = DosageApiKey.of(locale, params);
+                        var resolver = batchResolvers.get(key);
+                        if (resolver == null) {
+                            var created = cache.getCreator(locale, params);
+                            resolver = Objects.requireNonNullElse(batchResolvers.putIfAbsent(key, created), created);
+                        }
+                        return resolver;
+                    };
+
+                    // Identical entries are translated once, and so are identical groups of the same resolver
+                    var shared = new SharedTranslations();
+                    return processBatch(
+                            entries,
+                            entry -> requestKey(payloadType, elementsOf.apply(entry), paramsOf.apply(entry)),
+                            (entry, key) -> Mono
+                                    .defer(() -> translate(
+                                            key,
+                                            paramsOf.apply(entry),
+                                            () -> extract(
+                                                    payloadType,
+                                                    elementsOf.apply(entry),
+                                                    paramsOf.apply(entry).getOutputFormat()
+                                            ),
+                                            resolverLookup,
+                                            translationOptions
+                                                    .withTimeout(paramsOf.apply(entry).getTimeoutMillis(), readAt)
+                                                    .sharing(shared)
+                                    ))
+                                    // Entries are parsed in parallel, not one after the other on this thread
+                                    .subscribeOn(workerScheduler),
+                            e -> DosageResponseDto
+                                    .builder()
+                                    .issues(List.of(createEntryProblemDetail(e)))
+                                    .build(),
+                            batchProperties.getConcurrency()
+                    );
+                })
+                // Hashing, parsing and resolver construction must not run on the event loop
+                .subscribeOn(workerScheduler);
+    }
+
+    @Override
+    public Flux<TranslationResult> translateProgressively(
+            PayloadType payloadType,
+            List<JsonNode> elements,
+            ParamsDto params
+    ) {
+        // The latency budget starts once the body is read, waiting for a worker included
+        var options = translationOptions.withTimeout(params.getTimeoutMillis());
+        return Flux
+                .defer(() -> {
+                    var locales = params.getLocales().stream().distinct().toList();
+
+                    return translateDosagesProgressively(
+                            extract(payloadType, elements, params.getOutputFormat()),
+                            locales,
+                            resolvers(params, locales, cache::getCreator),
+                            options
+                    );
+                })
+                // Parsing and resolver construction must not run on the event loop
+                .subscribeOn(workerScheduler);
+    }
+
+    @Override
+    public Flux<StreamItemDto> translateStream(PayloadType payloadType, Flux<JsonNode> elements, ParamsDto params) {
+        var locales = params.getLocales();
+        var options = translationOptions.withTimeout(params.getTimeoutMillis());
+
+        return Mono
+                .fromCallable(() -> resolvers(params, locales, cache::getCreator))
+                // Parsing and resolver construction must not run on the event loop
+                .subscribeOn(workerScheduler)
+                .flatMapMany(resolvers -> translateDosageStream(
+                        elements.publishOn(workerScheduler),
+                        node -> extract(payloadType, List.of(node), OutputFormat.SUMMARY),
+                        locales,
+                        resolvers,
+                        options
+                ));
+    }
+
+    private static RequestKey requestKey(PayloadType payloadType, List<JsonNode> elements, ParamsDto params) {
+        return new RequestKey(
+                FhirVersion.R5,
+                payloadType,
+                PayloadDigest.sha256(elements),
+                params
+        );
+    }
+
+    private Mono<DosageResponseDto> translate(
+            RequestKey key,
+            ParamsDto params,
+            Supplier<List<List<Dosage>>> dosages,
+            BiFunction<Locale, ParamsDto, DosageAPIR5> resolverLookup,
+            TranslationOptions options
+    ) {
+        Supplier<Mono<DosageResponseDto>> work = () -> resultCache.translate(
+                key.fhirVersion(),
+                key.payloadType(),
+                key.digest(),
+                params,
+                locales -> translateDosagesWithIssues(
+                        dosages.get(),
+                        locales,
+                        resolvers(params, locales, resolverLookup),
+                        options
+                )
+        );
+
+        // Identical requests in flight share the same work,
+        // which only translates the locales not already cached.
+        // A response cut short by a deadline is not shared.
+        return options.hasDeadline()
+                ? work.get()
+                : coalescer.coalesce(key, work);
+    }
+
+    private List<List<Dosage>> extract(PayloadType payloadType, List<JsonNode> elements, OutputFormat outputFormat) {
+        return parsers.withJsonParser(
+                FhirVersion.R5,
+                parser -> switch (payloadType) {
+                    case DOSAGE -> validateAndExtractDosages(
+                            elements,
+                            parser,
+                            MedicationRequest.class,
+                            r -> ((MedicationRequest) r).getDosageInstruction(),
+                            outputFormat
+                    );
+                    case TIMING -> validateAndExtractTiming(
+                            elements,
+                            parser,
+                            MedicationRequest.class,
+                            r -> ((MedicationRequest) r).getDosageInstruction(),
+                            outputFormat
+                    );
+                }
+        );
+    }
+
+    /**
+     * JSON of parsed dosages, as they would have been sent to the dosage endpoints.
+     */
+    private List<JsonNode> encode(List<Dosage> dosages) {
+        var wrapper = new MedicationRequest().setDosageInstruction(dosages);
+        String json = parsers.withJsonParser(FhirVersion.R5, parser -> parser.encodeResourceToString(wrapper));
+        try {
+            List<JsonNode> nodes = new ArrayList<>(dosages.size());
+            DosageConversionSupport.MAPPER.readTree(json).path("dosageInstruction").forEach(nodes::add);
+            return nodes;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private Map<Locale, DosageAPIR5> resolvers(
+            ParamsDto params,
+            List<Locale> locales,
+            BiFunction<Locale, ParamsDto, DosageAPIR5> resolverLookup
+    ) {
+        return locales
+                .stream()
+                .distinct()
+                .collect(Collectors.toMap(
+                        Function.identity(),
+                        locale -> resolverLookup.apply(locale, params)
+                ));
+    }
+}
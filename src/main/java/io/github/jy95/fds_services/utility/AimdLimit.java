@@ -0,0 +1,93 @@
+package io.github.jy95.fds_services.utility;
+
+/**
+ * Concurrency limit adjusted from observed latency (additive increase, multiplicative decrease).
+ * <p>
+ * Every request completed under the latency threshold while the limit is at least half used raises it by one.
+ * A slow or failed request multiplies it by the backoff ratio, at most once per "generation" : samples that
+ * started before the last decrease were admitted under the previous limit and say nothing about the current one,
+ * so a burst of slow responses does not collapse the limit to its minimum.
+ */
+public class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+    private long rejected;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 1 <= minLimit <= maxLimit, was " + minLimit + " / " + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be in ]0, 1[, was " + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a slot if the limit allows it.
+     *
+     * @return false when the request must be rejected.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected++;
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Gives a slot back and adjusts the limit from that request.
+     *
+     * @param startNanos {@link System#nanoTime()} when the slot was taken.
+     * @param endNanos   {@link System#nanoTime()} when the request completed.
+     * @param dropped    whether the request failed (server side).
+     */
+    public synchronized void onSample(long startNanos, long endNanos, boolean dropped) {
+        inFlight--;
+
+        if (dropped || endNanos - startNanos > latencyThresholdNanos) {
+            if (startNanos - lastDecreaseNanos >= 0) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = endNanos;
+            }
+        } else if ((inFlight + 1) * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    /**
+     * Gives a slot back without adjusting the limit (e.g. the client went away).
+     */
+    public synchronized void onIgnore() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Requests rejected so far, by any caller of {@link #tryAcquire()}.
+     */
+    public synchronized long getRejected() {
+        return rejected;
+    }
+}
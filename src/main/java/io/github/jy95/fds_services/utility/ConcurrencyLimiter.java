@@ -0,0 +1,152 @@
+package io.github.jy95.fds_services.utility;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking counting semaphore for reactive work.
+ * <p>
+ * A limited {@link Mono} is only subscribed once a permit is available, and gives it back when it terminates
+ * or is cancelled. Waiters are served in arrival order, so earlier work (e.g. the first dosages of a request)
+ * is started first.
+ */
+public class ConcurrencyLimiter {
+
+    private static final ConcurrencyLimiter UNLIMITED = new ConcurrencyLimiter(Integer.MAX_VALUE);
+
+    private final Object lock = new Object();
+    private final Queue<Waiter> waiting = new ArrayDeque<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final int maxConcurrency;
+    private int available;
+
+    public ConcurrencyLimiter(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive, was " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.available = maxConcurrency;
+    }
+
+    /**
+     * Limiter that never delays anything.
+     */
+    public static ConcurrencyLimiter unlimited() {
+        return UNLIMITED;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Number of works currently holding a permit.
+     */
+    public int inFlight() {
+        synchronized (lock) {
+            return maxConcurrency - available;
+        }
+    }
+
+    /**
+     * Number of works waiting for a permit.
+     */
+    public int pending() {
+        synchronized (lock) {
+            return waiting.size();
+        }
+    }
+
+    public <T> Mono<T> limit(Mono<T> work) {
+        if (this == UNLIMITED) {
+            return work;
+        }
+        return Mono.usingWhen(
+                acquire(),
+                permit -> work,
+                Permit::release,
+                (permit, error) -> permit.release(),
+                Permit::release
+        );
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            synchronized (lock) {
+                waiting.add(waiter);
+            }
+
+            sink.onCancel(() -> {
+                Permit permit;
+                synchronized (lock) {
+                    if (waiting.remove(waiter)) {
+                        return;
+                    }
+                    permit = waiter.permit;
+                }
+                // Granted, but nobody will use it
+                if (permit != null) {
+                    permit.release();
+                }
+            });
+
+            drain();
+        });
+    }
+
+    private void releaseOne() {
+        synchronized (lock) {
+            available++;
+        }
+        drain();
+    }
+
+    // Grants permits to waiters in a loop, so that work completing synchronously does not recurse
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            for (;;) {
+                Waiter next;
+                synchronized (lock) {
+                    if (available == 0 || (next = waiting.poll()) == null) {
+                        break;
+                    }
+                    available--;
+                    next.permit = new Permit();
+                }
+                next.sink.success(next.permit);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Permit> sink;
+        private Permit permit;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private final class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Mono<Void> release() {
+            if (released.compareAndSet(false, true)) {
+                releaseOne();
+            }
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.jy95.fds_services.utility;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dosage groups received by requests, and how many of them had to be translated
+ * (the others were identical to another group of the same request).
+ */
+public class DeduplicationStats {
+
+    private final LongAdder groups = new LongAdder();
+    private final LongAdder translatedGroups = new LongAdder();
+
+    /**
+     * @param groups           Groups of a request.
+     * @param translatedGroups Distinct groups among them.
+     */
+    public void record(int groups, int translatedGroups) {
+        this.groups.add(groups);
+        this.translatedGroups.add(translatedGroups);
+    }
+
+    public long groups() {
+        return groups.sum();
+    }
+
+    public long translatedGroups() {
+        return translatedGroups.sum();
+    }
+
+    /**
+     * Share of the groups that did not need their own translation, between 0 and 1.
+     */
+    public double ratio() {
+        long total = groups();
+        return total == 0 ? 0 : 1 - (double) translatedGroups() / total;
+    }
+}
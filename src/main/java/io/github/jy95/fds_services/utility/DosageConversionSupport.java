@@ -1,26 +1,43 @@
 package io.github.jy95.fds_services.utility;
 
+import ca.uhn.fhir.parser.IJsonLikeParser;
 import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.parser.json.jackson.JacksonStructure;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.jy95.fds.common.types.DosageAPI;
 import io.github.jy95.fds_services.dto.DosageResponseDto;
 import io.github.jy95.fds_services.dto.LocalizedDto;
+import io.github.jy95.fds_services.dto.StreamItemDto;
+import io.github.jy95.fds_services.dto.TranslationSummaryDto;
+import io.github.jy95.fds_services.enum_.BelgifProblemType;
 import io.github.jy95.fds_services.enum_.OutputFormat;
+import io.github.jy95.fds_services.exception.TranslationFailedException;
 import io.vavr.control.Either;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.codec.ServerSentEvent;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +47,17 @@ public interface DosageConversionSupport {
 
     ObjectMapper MAPPER = new ObjectMapper();
     URI INTERNAL_SERVER_ERROR = URI.create("urn:problem-type:belgif:internalServerError");
+    URI SERVICE_UNAVAILABLE = URI.create(BelgifProblemType.SERVICE_UNAVAILABLE.getType());
+
+    /**
+     * Upper bound of the translations in flight for a stream, whatever the per-request cap.
+     */
+    int MAX_STREAM_TRANSLATIONS = 256;
+
+    /**
+     * FHIR extension carrying the translation of a string element in another language.
+     */
+    String TRANSLATION_EXTENSION = "http://hl7.org/fhir/StructureDefinition/translation";
 
     /**
      * Validates and extracts Dosage elements from a JSON node, using HAPI FHIR parsing.
@@ -52,14 +80,14 @@ public interface DosageConversionSupport {
     ) {
 
         try {
+            // The wrapper only references the request nodes, they are not copied
             ObjectNode workingObj = MAPPER.createObjectNode();
             var workingArr = MAPPER.createArrayNode();
             workingArr.addAll(dosageArray);
             workingObj.set("dosageInstruction", workingArr);
             workingObj.put("resourceType", "MedicationRequest");
 
-            String json = MAPPER.writeValueAsString(workingObj);
-            IBaseResource resource = parser.parseResource(wrapperClass, json);
+            IBaseResource resource = parseTree(parser, wrapperClass, workingObj);
             var dosageList = extractFunction.apply(resource);
 
             return switch (outputFormat) {
@@ -71,6 +99,29 @@ public interface DosageConversionSupport {
         }
     }
 
+    /**
+     * Binds a JSON tree to a HAPI FHIR resource.
+     * JSON parsers read the Jackson tree directly, instead of writing it to a String that would be parsed again.
+     *
+     * @param parser       HAPI FHIR parser.
+     * @param wrapperClass FHIR resource class to bind.
+     * @param tree         JSON tree of the resource.
+     * @return The parsed resource.
+     * @throws Exception if the tree is not a valid resource.
+     */
+    static IBaseResource parseTree(
+            IParser parser,
+            Class<? extends IBaseResource> wrapperClass,
+            ObjectNode tree
+    ) throws Exception {
+        if (parser instanceof IJsonLikeParser jsonLikeParser) {
+            JacksonStructure structure = new JacksonStructure();
+            structure.setNativeObject(tree);
+            return jsonLikeParser.parseResource(wrapperClass, structure);
+        }
+        return parser.parseResource(wrapperClass, MAPPER.writeValueAsString(tree));
+    }
+
     /**
      * Creates a resolver map for each requested locale.
      *
@@ -101,17 +152,29 @@ public interface DosageConversionSupport {
             List<Locale> locales,
             Map<Locale, ? extends DosageAPI<?, D>> resolvers
     ) {
-        return Flux.fromIterable(dosages)
-                .flatMap(dosageList ->
-                        translateSingleDosageListForLocales(dosageList, locales, resolvers)
-                                .map(this::partitionTranslationResults)
-                                .map(partition -> new TranslationResult(
-                                        LocalizedDto.builder()
-                                                .translations(partition.translations())
-                                                .build(),
-                                        partition.issues()
-                                ))
-                )
+        return translateDosagesWithIssues(dosages, locales, resolvers, TranslationOptions.DEFAULT);
+    }
+
+    /**
+     * Translates all dosage inputs to human-readable text per locale and returns both translations and issues.
+     * <p>
+     * Once the deadline of the options (if any) is reached, translations still running or waiting are cancelled,
+     * and the locales they were for are reported as issues instead.
+     *
+     * @param dosages   List of dosage groups (each group is a list of dosage items).
+     * @param locales   Locales to generate translations for.
+     * @param resolvers Map of resolvers per locale.
+     * @param options   Scheduler, concurrency limits and deadline of the translations.
+     * @param <D>       Dosage type.
+     * @return A Mono emitting a DosageResponseDto containing translations and any issues.
+     */
+    default <D> Mono<DosageResponseDto> translateDosagesWithIssues(
+            List<List<D>> dosages,
+            List<Locale> locales,
+            Map<Locale, ? extends DosageAPI<?, D>> resolvers,
+            TranslationOptions options
+    ) {
+        return translateDosagesProgressively(dosages, locales, resolvers, options)
                 .collectList()
                 .map(results -> {
                     List<LocalizedDto> items = results.stream()
@@ -129,27 +192,298 @@ public interface DosageConversionSupport {
                 });
     }
 
+    /**
+     * Translates all dosage inputs to human-readable text per locale, emitting each group as soon as it is translated.
+     * <p>
+     * Groups are emitted in input order. A locale that timed out is only reported with the first group it failed for.
+     * Identical groups of the request (see {@link DosageGroupKey}) are translated once, and their result repeated.
+     *
+     * @param dosages   List of dosage groups (each group is a list of dosage items).
+     * @param locales   Locales to generate translations for.
+     * @param resolvers Map of resolvers per locale.
+     * @param options   Scheduler, concurrency limits and deadline of the translations.
+     * @param <D>       Dosage type.
+     * @return A Flux emitting, per group, its translations and issues.
+     */
+    default <D> Flux<TranslationResult> translateDosagesProgressively(
+            List<List<D>> dosages,
+            List<Locale> locales,
+            Map<Locale, ? extends DosageAPI<?, D>> resolvers,
+            TranslationOptions options
+    ) {
+        return Flux.defer(() -> {
+            // Translations of this request (all groups and locales together) in flight at once
+            var requestLimiter = options.maxConcurrency() == Integer.MAX_VALUE
+                    ? ConcurrencyLimiter.unlimited()
+                    : new ConcurrencyLimiter(options.maxConcurrency());
+
+            // A locale that timed out is reported once, not once per group
+            Set<ProblemDetail> timedOut = new HashSet<>();
+
+            // A single group (SUMMARY requests, stream elements) has nothing to be deduplicated against
+            boolean deduplicate = options.deduplication() != null && dosages.size() > 1;
+
+            // Position of each group among the distinct ones, in order of first occurrence
+            List<List<D>> unique = dosages;
+            int[] uniqueIndex = null;
+            if (deduplicate) {
+                Map<DosageGroupKey, Integer> distinct = new HashMap<>();
+                List<List<D>> distinctGroups = new ArrayList<>();
+                uniqueIndex = new int[dosages.size()];
+                for (int i = 0; i < dosages.size(); i++) {
+                    List<D> dosageList = dosages.get(i);
+                    uniqueIndex[i] = distinct.computeIfAbsent(DosageGroupKey.of(dosageList), key -> {
+                        distinctGroups.add(dosageList);
+                        return distinctGroups.size() - 1;
+                    });
+                }
+                unique = distinctGroups;
+                options.deduplication().record(dosages.size(), unique.size());
+            }
+
+            // Sequential merge : items must follow the order of the dosage groups
+            Flux<TranslationPartition> partitions = Flux.fromIterable(unique)
+                    .flatMapSequential(dosageList ->
+                            translateSingleDosageListForLocales(dosageList, locales, resolvers, options, requestLimiter)
+                                    .map(this::partitionTranslationResults)
+                    );
+
+            if (deduplicate) {
+                // Groups are released as soon as the distinct group they repeat is translated
+                int[] positions = uniqueIndex;
+                List<TranslationPartition> translated = new ArrayList<>(unique.size());
+                var released = new AtomicInteger();
+                partitions = partitions.concatMapIterable(partition -> {
+                    translated.add(partition);
+                    List<TranslationPartition> ready = new ArrayList<>();
+                    int next = released.get();
+                    while (next < positions.length && positions[next] < translated.size()) {
+                        ready.add(translated.get(positions[next++]));
+                    }
+                    released.set(next);
+                    return ready;
+                });
+            }
+
+            return partitions
+                    .map(partition -> new TranslationResult(
+                            LocalizedDto.builder()
+                                    .translations(partition.translations())
+                                    .build(),
+                            partition
+                                    .issues()
+                                    .stream()
+                                    .filter(issue -> !isTimeout(issue) || timedOut.add(issue))
+                                    .toList()
+                    ));
+        });
+    }
+
+    /**
+     * Turns translated groups into Server-Sent Events : an {@code item} event per group (its index as id),
+     * an {@code issue} event per issue, and a final {@code summary} event with the counts.
+     *
+     * @param results Translated groups, in input order.
+     * @return A Flux of events, ending with the summary.
+     */
+    default Flux<ServerSentEvent<Object>> toServerSentEvents(Flux<TranslationResult> results) {
+        return Flux.defer(() -> {
+            var items = new AtomicInteger();
+            var issues = new AtomicInteger();
+
+            Flux<ServerSentEvent<Object>> events = results.concatMapIterable(result -> {
+                List<ServerSentEvent<Object>> groupEvents = new ArrayList<>(1 + result.issues().size());
+                groupEvents.add(ServerSentEvent
+                        .builder((Object) result.dto())
+                        .id(String.valueOf(items.getAndIncrement()))
+                        .event("item")
+                        .build());
+                for (ProblemDetail issue : result.issues()) {
+                    issues.incrementAndGet();
+                    groupEvents.add(ServerSentEvent.builder((Object) issue).event("issue").build());
+                }
+                return groupEvents;
+            });
+
+            Mono<ServerSentEvent<Object>> summary = Mono.fromSupplier(() -> ServerSentEvent
+                    .builder((Object) TranslationSummaryDto
+                            .builder()
+                            .items(items.get())
+                            .issues(issues.get())
+                            .build())
+                    .event("summary")
+                    .build());
+
+            return events.concatWith(summary);
+        });
+    }
+
+    /**
+     * Translates a stream of dosage elements, one output item per input element, in input order.
+     * <p>
+     * Elements are read only as output is consumed : at most a few elements are parsed or translated ahead,
+     * so memory stays flat whatever the size of the stream. An element that cannot be parsed gives an item
+     * without translations, and a locale that failed is missing from its item : either way, the item tells why.
+     *
+     * @param elements  Stream of JSON elements (dosages or timings).
+     * @param extract   Parses one element into dosage groups.
+     * @param locales   Locales to generate translations for.
+     * @param resolvers Map of resolvers per locale.
+     * @param options   Scheduler, concurrency limits and deadline of the whole stream.
+     * @param <D>       Dosage type.
+     * @return A Flux emitting one StreamItemDto per element.
+     */
+    default <D> Flux<StreamItemDto> translateDosageStream(
+            Flux<JsonNode> elements,
+            Function<JsonNode, List<List<D>>> extract,
+            List<Locale> locales,
+            Map<Locale, ? extends DosageAPI<?, D>> resolvers,
+            TranslationOptions options
+    ) {
+        // The per-request cap applies to the whole stream : it bounds the elements in flight instead
+        int elementsInFlight = Math.max(1, Math.min(options.maxConcurrency(), MAX_STREAM_TRANSLATIONS) / Math.max(1, locales.size()));
+        var elementOptions = new TranslationOptions(
+                options.scheduler(),
+                Integer.MAX_VALUE,
+                options.globalLimiter(),
+                options.deadlineNanos(),
+                options.deduplication(),
+                options.shared()
+        );
+
+        // Sequential merge : output lines follow input lines
+        return elements.flatMapSequential(
+                element -> Mono
+                        .fromCallable(() -> extract.apply(element))
+                        .flatMap(dosages -> translateDosagesWithIssues(dosages, locales, resolvers, elementOptions))
+                        .map(response -> StreamItemDto
+                                .builder()
+                                .translations(response.getItems().isEmpty()
+                                        ? Map.of()
+                                        : response.getItems().getFirst().getTranslations())
+                                .issues(response.getIssues())
+                                .build())
+                        .onErrorResume(IllegalArgumentException.class, e -> Mono.just(StreamItemDto
+                                .builder()
+                                .issue(createEntryProblemDetail(e))
+                                .build())),
+                elementsInFlight,
+                1
+        );
+    }
+
+    /**
+     * Processes the entries of a batch in parallel, and returns their responses in the order of the entries.
+     * <p>
+     * Entries with the same key are processed once, and share the same response.
+     * An entry that fails does not fail the batch : its response is built from the error instead.
+     *
+     * @param entries     Entries of the batch.
+     * @param keyOf       Identity of an entry : entries with equal keys produce the same response.
+     * @param process     Processes an entry, given its key.
+     * @param onError     Builds the response of an entry that failed.
+     * @param concurrency Maximum number of entries processed at once.
+     * @param <Q>         Type of the entries.
+     * @param <K>         Type of the keys.
+     * @param <R>         Type of the responses.
+     * @return A Mono emitting one response per entry.
+     */
+    default <Q, K, R> Mono<List<R>> processBatch(
+            List<Q> entries,
+            Function<Q, K> keyOf,
+            BiFunction<Q, K, Mono<R>> process,
+            Function<Throwable, R> onError,
+            int concurrency
+    ) {
+        Map<K, Mono<R>> unique = new HashMap<>();
+        List<Mono<R>> responses = entries
+                .stream()
+                .map(entry -> unique.computeIfAbsent(
+                        keyOf.apply(entry),
+                        key -> Mono
+                                .defer(() -> process.apply(entry, key))
+                                .onErrorResume(e -> Mono.just(onError.apply(e)))
+                                .cache()
+                ))
+                .toList();
+
+        // Sequential merge : responses follow the order of the entries
+        return Flux
+                .fromIterable(responses)
+                .flatMapSequential(Function.identity(), concurrency)
+                .collectList();
+    }
+
+    /**
+     * Builds the ProblemDetail of a batch entry that could not be processed at all.
+     *
+     * @param e The exception to convert.
+     * @return ProblemDetail object for error reporting.
+     */
+    default ProblemDetail createEntryProblemDetail(Throwable e) {
+        BelgifProblemType type = switch (e) {
+            case IllegalArgumentException ignored -> BelgifProblemType.BAD_REQUEST;
+            case RejectedExecutionException ignored -> BelgifProblemType.SERVICE_UNAVAILABLE;
+            default -> BelgifProblemType.INTERNAL_SERVER_ERROR;
+        };
+        ProblemDetail problem = ProblemDetail.forStatus(type.getStatus());
+        problem.setType(URI.create(type.getType()));
+        problem.setTitle(type.getTitle());
+        problem.setDetail(e.getMessage());
+        return problem;
+    }
+
     /**
      * Helper: Translates a single group of dosage items across all requested locales.
      */
     private <D> Mono<List<Either<ProblemDetail, Map.Entry<String, String>>>> translateSingleDosageListForLocales(
             List<D> dosageList,
             List<Locale> locales,
-            Map<Locale, ? extends DosageAPI<?, D>> resolvers
+            Map<Locale, ? extends DosageAPI<?, D>> resolvers,
+            TranslationOptions options,
+            ConcurrencyLimiter requestLimiter
     ) {
+        // Sequential merge : the order of the locales is kept
         return Flux
                 .fromIterable(locales)
-                .flatMap(locale -> {
+                .flatMapSequential(locale -> {
                     var resolver = resolvers.get(locale);
-                    return Mono
-                            .fromFuture(resolver.asHumanReadableText(dosageList))
+                    // The library completes its futures on its own threads (the common pool, by default) :
+                    // what follows the translation goes back to the translation scheduler
+                    Supplier<Mono<String>> translation = () -> options.globalLimiter().limit(Mono
+                            .fromFuture(() -> resolver.asHumanReadableText(dosageList))
+                            .subscribeOn(options.scheduler())
+                            .publishOn(options.scheduler()));
+                    // Within a batch, a group translated for another entry is not translated again
+                    var shared = options.shared() != null
+                            ? options.shared().translate(resolver, dosageList, translation)
+                            : translation.get();
+                    // Cancelling the Mono frees the permits, and cancels the future unless another entry still awaits it
+                    return withDeadline(requestLimiter.limit(shared), options)
                             .map(result -> Either.<ProblemDetail, Map.Entry<String, String>>right(
                                     new AbstractMap.SimpleEntry<>(locale.getLanguage(), result)))
+                            .onErrorResume(TimeoutException.class,
+                                    e -> Mono.just(Either.left(createTimeoutProblemDetail(locale))))
                             .onErrorResume(e -> Mono.just(Either.left(createProblemDetail(e, locale))));
                 })
                 .collectList();
     }
 
+    /**
+     * Helper: Fails the translation with a TimeoutException once the deadline is reached, waiting for permits included.
+     */
+    private static <T> Mono<T> withDeadline(Mono<T> translation, TranslationOptions options) {
+        if (!options.hasDeadline()) {
+            return translation;
+        }
+        return Mono.defer(() -> {
+            long remaining = options.deadlineNanos() - System.nanoTime();
+            return remaining > 0
+                    ? translation.timeout(Duration.ofNanos(remaining))
+                    : Mono.error(new TimeoutException());
+        });
+    }
+
     /**
      * Helper: Partitions translation results into successful translations and errors.
      */
@@ -186,6 +520,64 @@ public interface DosageConversionSupport {
         return problem;
     }
 
+    /**
+     * Builds the ProblemDetail of a locale whose translation did not complete before the deadline.
+     *
+     * @param locale The locale that timed out.
+     * @return ProblemDetail object for error reporting.
+     */
+    default ProblemDetail createTimeoutProblemDetail(Locale locale) {
+        BelgifProblemType type = BelgifProblemType.SERVICE_UNAVAILABLE;
+        ProblemDetail problem = ProblemDetail.forStatus(type.getStatus());
+        problem.setType(SERVICE_UNAVAILABLE);
+        problem.setTitle(type.getTitle());
+        problem.setDetail("Translation did not complete before the deadline of the request");
+        problem.setProperty("locale", locale.toLanguageTag());
+        return problem;
+    }
+
+    /**
+     * Fails with the issues of a response where not a single translation could be made.
+     *
+     * @param response Translations and issues of the request.
+     * @return The same response, when at least one translation was made (or nothing was to translate).
+     * @throws TranslationFailedException when every translation failed.
+     */
+    default DosageResponseDto requireTranslations(DosageResponseDto response) {
+        boolean translated = response
+                .getItems()
+                .stream()
+                .anyMatch(item -> !item.getTranslations().isEmpty());
+        if (!translated && !response.getIssues().isEmpty()) {
+            throw new TranslationFailedException(response.getIssues());
+        }
+        return response;
+    }
+
+    /**
+     * Turns issues into HTTP Warning header values, for responses whose body has no room for them.
+     * Identical issues (e.g. the same locale failing for every dosage) give a single warning.
+     *
+     * @param issues Issues of the translations.
+     * @return One Warning header value per distinct issue.
+     */
+    default List<String> createWarnings(List<ProblemDetail> issues) {
+        return issues
+                .stream()
+                .map(issue -> {
+                    Object locale = issue.getProperties() != null ? issue.getProperties().get("locale") : null;
+                    String text = (locale != null ? locale + ": " : "") + issue.getDetail();
+                    // Quoted string : no quotes nor control characters inside
+                    return "199 - \"" + text.replaceAll("[\"\\\\\\p{Cntrl}]", " ") + "\"";
+                })
+                .distinct()
+                .toList();
+    }
+
+    private static boolean isTimeout(ProblemDetail issue) {
+        return SERVICE_UNAVAILABLE.equals(issue.getType());
+    }
+
     /**
      * Internal structure holding a partitioned translation result.
      *
@@ -198,7 +590,7 @@ public interface DosageConversionSupport {
     ) {}
 
     /**
-     * Internal structure combining the DTO with issues for one dosage group.
+     * Translations and issues of one dosage group.
      *
      * @param dto    Localized DTO containing translations.
      * @param issues List of translation issues as ProblemDetail objects.
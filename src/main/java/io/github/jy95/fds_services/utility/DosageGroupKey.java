@@ -0,0 +1,103 @@
+package io.github.jy95.fds_services.utility;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Content identity of a dosage group : groups are equal when their dosages are deeply equal (HAPI {@code equalsDeep}).
+ * <p>
+ * The hash walks the FHIR element tree (names and primitive values), so that identical groups parsed from separate
+ * JSON objects, whatever the order of their properties, land in the same bucket.
+ * Values that are not FHIR elements fall back to their own equals / hashCode.
+ */
+public final class DosageGroupKey {
+
+    private final List<?> group;
+    private final int hash;
+
+    private DosageGroupKey(List<?> group) {
+        this.group = group;
+        int result = 1;
+        for (Object dosage : group) {
+            result = 31 * result + hash(dosage);
+        }
+        this.hash = result;
+    }
+
+    public static DosageGroupKey of(List<?> group) {
+        return new DosageGroupKey(group);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DosageGroupKey other) || hash != other.hash || group.size() != other.group.size()) {
+            return false;
+        }
+        for (int i = 0; i < group.size(); i++) {
+            if (!equalsDeep(group.get(i), other.group.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    private static boolean equalsDeep(Object a, Object b) {
+        if (a instanceof org.hl7.fhir.r4.model.Base r4 && b instanceof org.hl7.fhir.r4.model.Base other) {
+            return r4.equalsDeep(other);
+        }
+        if (a instanceof org.hl7.fhir.r5.model.Base r5 && b instanceof org.hl7.fhir.r5.model.Base other) {
+            return r5.equalsDeep(other);
+        }
+        return Objects.equals(a, b);
+    }
+
+    private static int hash(Object value) {
+        if (value instanceof org.hl7.fhir.r4.model.Base r4) {
+            return hashR4(r4);
+        }
+        if (value instanceof org.hl7.fhir.r5.model.Base r5) {
+            return hashR5(r5);
+        }
+        return Objects.hashCode(value);
+    }
+
+    private static int hashR4(org.hl7.fhir.r4.model.Base element) {
+        if (element.isPrimitive()) {
+            return Objects.hashCode(element.primitiveValue());
+        }
+        int result = element.fhirType().hashCode();
+        for (org.hl7.fhir.r4.model.Property property : element.children()) {
+            if (property.hasValues()) {
+                result = 31 * result + property.getName().hashCode();
+                for (org.hl7.fhir.r4.model.Base value : property.getValues()) {
+                    result = 31 * result + hashR4(value);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int hashR5(org.hl7.fhir.r5.model.Base element) {
+        if (element.isPrimitive()) {
+            return Objects.hashCode(element.primitiveValue());
+        }
+        int result = element.fhirType().hashCode();
+        for (org.hl7.fhir.r5.model.Property property : element.children()) {
+            if (property.hasValues()) {
+                result = 31 * result + property.getName().hashCode();
+                for (org.hl7.fhir.r5.model.Base value : property.getValues()) {
+                    result = 31 * result + hashR5(value);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.jy95.fds_services.utility;
+
+import io.github.jy95.fds.common.types.DosageAPI;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Translations shared by the requests of a batch : a dosage group already translated for another entry,
+ * by the same resolver, is not translated again.
+ * <p>
+ * Groups are compared by content (see {@link DosageGroupKey}), resolvers by identity : only entries resolved to the
+ * same resolver (same locale and display params) share their translations.
+ * Nothing is evicted, an instance must not outlive its batch.
+ */
+public class SharedTranslations {
+
+    private record Key(DosageAPI<?, ?> resolver, DosageGroupKey group) {}
+
+    private final Map<Key, Mono<String>> translations = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the translation of that group by that resolver, started only by its first subscriber.
+     *
+     * @param resolver    Resolver translating the group.
+     * @param group       Dosage group to translate.
+     * @param translation Translates the group, when it was not already.
+     * @return A Mono replaying the translation (or its failure) to every subscriber.
+     */
+    public Mono<String> translate(DosageAPI<?, ?> resolver, List<?> group, Supplier<Mono<String>> translation) {
+        // The supplier only assembles the Mono : nothing runs while the map is locked
+        return translations.computeIfAbsent(
+                new Key(resolver, DosageGroupKey.of(group)),
+                key -> translation.get().cache()
+        );
+    }
+}
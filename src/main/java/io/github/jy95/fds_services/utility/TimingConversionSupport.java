@@ -3,6 +3,7 @@ package io.github.jy95.fds_services.utility;
 import ca.uhn.fhir.parser.IParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.jy95.fds_services.enum_.OutputFormat;
 import org.hl7.fhir.instance.model.api.IBase;
@@ -27,10 +28,7 @@ public interface TimingConversionSupport {
             OutputFormat outputFormat
     ) {
 
-        var dosageList = timingArray
-                .stream()
-                .map(timingNode -> parseTimingNodeToDosageList(timingNode, parser, wrapperClass, extractFunction))
-                .toList();
+        var dosageList = parseTimingNodesToDosageLists(timingArray, parser, wrapperClass, extractFunction);
 
         return switch (outputFormat) {
             case SUMMARY -> List
@@ -44,16 +42,46 @@ public interface TimingConversionSupport {
         };
     }
 
+    // All timings are parsed in a single pass, one dosage per timing
+    private <T extends IBase> List<List<T>> parseTimingNodesToDosageLists(
+            List<JsonNode> timingArray,
+            IParser parser,
+            Class<? extends IBaseResource> wrapperClass,
+            Function<IBaseResource, List<T>> extractFunction
+    ) {
+        ArrayNode dosageInstruction = MAPPER.createArrayNode();
+        timingArray.forEach(timingNode -> dosageInstruction.add(MAPPER.createObjectNode().set("timing", timingNode)));
+
+        List<T> dosages;
+        try {
+            dosages = extractFunction.apply(
+                    DosageConversionSupport.parseTree(parser, wrapperClass, wrapMedicationRequest(dosageInstruction))
+            );
+        } catch (Exception e) {
+            dosages = null;
+        }
+
+        // On failure, parse each timing on its own to report the one that is invalid
+        if (dosages == null || dosages.size() != timingArray.size()) {
+            return timingArray
+                    .stream()
+                    .map(timingNode -> parseTimingNodeToDosageList(timingNode, parser, wrapperClass, extractFunction))
+                    .toList();
+        }
+
+        return dosages
+                .stream()
+                .map(List::of)
+                .toList();
+    }
+
     private <T extends IBase> List<T> parseTimingNodeToDosageList(
             JsonNode timingNode,
             IParser parser,
             Class<? extends IBaseResource> wrapperClass,
             Function<IBaseResource, List<T>> extractFunction
     ) {
-        ObjectNode medReqNode = MAPPER.createObjectNode();
-        medReqNode.put("resourceType", "MedicationRequest");
-        medReqNode.set(
-                "dosageInstruction",
+        ObjectNode medReqNode = wrapMedicationRequest(
                 MAPPER
                         .createArrayNode()
                         .add(
@@ -64,12 +92,18 @@ public interface TimingConversionSupport {
         );
 
         try {
-            String json = MAPPER.writeValueAsString(medReqNode);
-            IBaseResource resource = parser.parseResource(wrapperClass, json);
+            IBaseResource resource = DosageConversionSupport.parseTree(parser, wrapperClass, medReqNode);
             return extractFunction.apply(resource);
         } catch (Exception e) {
             throw new IllegalArgumentException("Failed to parse timing node: " + timingNode, e);
         }
     }
 
+    private ObjectNode wrapMedicationRequest(ArrayNode dosageInstruction) {
+        ObjectNode medReqNode = MAPPER.createObjectNode();
+        medReqNode.put("resourceType", "MedicationRequest");
+        medReqNode.set("dosageInstruction", dosageInstruction);
+        return medReqNode;
+    }
+
 }
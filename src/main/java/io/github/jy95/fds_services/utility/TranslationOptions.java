@@ -0,0 +1,96 @@
+package io.github.jy95.fds_services.utility;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * How the translations of a request are executed.
+ *
+ * @param scheduler      Scheduler on which each translation is started.
+ * @param maxConcurrency Maximum number of translations of a single request in flight at once.
+ * @param globalLimiter  Limiter shared by all requests.
+ * @param deadlineNanos  {@link System#nanoTime()} after which pending translations are abandoned, or null.
+ * @param deduplication  Where requests report the dosage groups they did not have to translate,
+ *                       or null to translate every group, identical or not.
+ * @param shared         Translations shared with the other requests of the same batch, or null.
+ */
+public record TranslationOptions(
+        Scheduler scheduler,
+        int maxConcurrency,
+        ConcurrencyLimiter globalLimiter,
+        Long deadlineNanos,
+        DeduplicationStats deduplication,
+        SharedTranslations shared
+) {
+
+    /**
+     * Everything on the calling thread, without limits.
+     */
+    public static final TranslationOptions DEFAULT = new TranslationOptions(
+            Schedulers.immediate(),
+            Integer.MAX_VALUE,
+            ConcurrencyLimiter.unlimited()
+    );
+
+    /**
+     * Options without deadline, nor shared statistics.
+     */
+    public TranslationOptions(Scheduler scheduler, int maxConcurrency, ConcurrencyLimiter globalLimiter) {
+        this(scheduler, maxConcurrency, globalLimiter, null, new DeduplicationStats());
+    }
+
+    /**
+     * Options of a request translated on its own.
+     */
+    public TranslationOptions(
+            Scheduler scheduler,
+            int maxConcurrency,
+            ConcurrencyLimiter globalLimiter,
+            Long deadlineNanos,
+            DeduplicationStats deduplication
+    ) {
+        this(scheduler, maxConcurrency, globalLimiter, deadlineNanos, deduplication, null);
+    }
+
+    /**
+     * Same options, with a latency budget starting now.
+     *
+     * @param timeoutMillis Budget in milliseconds, or null for none.
+     */
+    public TranslationOptions withTimeout(Long timeoutMillis) {
+        return withTimeout(timeoutMillis, System.nanoTime());
+    }
+
+    /**
+     * Same options, with a latency budget that started earlier (e.g. when the request was read).
+     *
+     * @param timeoutMillis Budget in milliseconds, or null for none.
+     * @param startNanos    {@link System#nanoTime()} at which the budget started.
+     */
+    public TranslationOptions withTimeout(Long timeoutMillis, long startNanos) {
+        if (timeoutMillis == null) {
+            return this;
+        }
+        return new TranslationOptions(
+                scheduler,
+                maxConcurrency,
+                globalLimiter,
+                startNanos + timeoutMillis * 1_000_000L,
+                deduplication,
+                shared
+        );
+    }
+
+    /**
+     * Same options, sharing translations with the other requests of a batch.
+     *
+     * @param shared Translations of the batch, or null for none.
+     */
+    public TranslationOptions sharing(SharedTranslations shared) {
+        return new TranslationOptions(scheduler, maxConcurrency, globalLimiter, deadlineNanos, deduplication, shared);
+    }
+
+    public boolean hasDeadline() {
+        return deadlineNanos != null;
+    }
+}
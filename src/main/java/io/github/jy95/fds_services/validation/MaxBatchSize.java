@@ -0,0 +1,27 @@
+package io.github.jy95.fds_services.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Same as {@code @Size(max = ...)}, with the maximum taken from {@code fds.batch.max-entries}
+ * (see {@link io.github.jy95.fds_services.config.BatchProperties}). Null collections are valid.
+ */
+@Documented
+@Constraint(validatedBy = MaxBatchSizeValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxBatchSize {
+
+    String message() default "size must be between 0 and {max}";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
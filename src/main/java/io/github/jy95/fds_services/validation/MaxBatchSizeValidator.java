@@ -0,0 +1,32 @@
+package io.github.jy95.fds_services.validation;
+
+import io.github.jy95.fds_services.config.BatchProperties;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.hibernate.validator.constraintvalidation.HibernateConstraintValidatorContext;
+
+import java.util.Collection;
+
+/**
+ * Created by Spring's validator factory, which injects the batch properties.
+ */
+public class MaxBatchSizeValidator implements ConstraintValidator<MaxBatchSize, Collection<?>> {
+
+    private final BatchProperties properties;
+
+    public MaxBatchSizeValidator(BatchProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean isValid(Collection<?> value, ConstraintValidatorContext context) {
+        int max = properties.getMaxEntries();
+        if (value == null || value.size() <= max) {
+            return true;
+        }
+        context
+                .unwrap(HibernateConstraintValidatorContext.class)
+                .addMessageParameter("max", max);
+        return false;
+    }
+}
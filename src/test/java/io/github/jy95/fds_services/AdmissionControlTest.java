@@ -0,0 +1,155 @@
+package io.github.jy95.fds_services;
+
+import io.github.jy95.fds_services.config.AdmissionControlProperties;
+import io.github.jy95.fds_services.filter.AdmissionControlFilter;
+import io.github.jy95.fds_services.filter.BelGovTraceIdFilter;
+import io.github.jy95.fds_services.utility.AimdLimit;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.server.handler.DefaultWebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlTest {
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void limit_growsWithFastRequestsAndBacksOffOnSlowOnes() {
+        var limit = new AimdLimit(10, 2, 20, 0.5, TimeUnit.MILLISECONDS.toNanos(100));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+        assertThat(limit.tryAcquire()).isFalse();
+
+        long start = System.nanoTime();
+        limit.onSample(start, start + 1_000, false);
+        assertThat(limit.getLimit()).isEqualTo(11);
+
+        limit.onSample(start, start + SLOW, false);
+        assertThat(limit.getLimit()).isEqualTo(5);
+        assertThat(limit.getInFlight()).isEqualTo(8);
+    }
+
+    @Test
+    void limit_backsOffOnceForRequestsAdmittedUnderThePreviousLimit() {
+        var limit = new AimdLimit(16, 1, 16, 0.5, TimeUnit.MILLISECONDS.toNanos(100));
+        long start = System.nanoTime();
+        for (int i = 0; i < 16; i++) {
+            limit.tryAcquire();
+        }
+
+        // All started together, all slow : a single decrease
+        for (int i = 0; i < 16; i++) {
+            limit.onSample(start, start + SLOW, true);
+        }
+        assertThat(limit.getLimit()).isEqualTo(8);
+
+        // A slow request admitted afterwards backs off again
+        limit.tryAcquire();
+        limit.onSample(start + SLOW + 1, start + 3 * SLOW, false);
+        assertThat(limit.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void filter_rejectsOverTheLimitWithBelgifProblem() {
+        var filter = filter(1);
+        Sinks.Empty<Void> firstRequest = Sinks.empty();
+
+        // First request holds the only slot
+        filter.filter(exchange("/r4/dosage/asHumanReadableText"), ex -> firstRequest.asMono()).subscribe();
+
+        var rejected = exchange("/r5/dosage/asHumanReadableText");
+        StepVerifier.create(filter.filter(rejected, ex -> Mono.error(new AssertionError("Must not be called"))))
+                .verifyComplete();
+
+        var response = rejected.getResponse();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON);
+        StepVerifier.create(response.getBodyAsString())
+                .assertNext(body -> assertThat(body)
+                        .contains("\"type\":\"urn:problem-type:belgif:tooManyRequests\"")
+                        .contains("\"status\":429")
+                        .contains("\"path\":\"/r5/dosage/asHumanReadableText\""))
+                .verifyComplete();
+
+        // Slot given back once the first request completes
+        firstRequest.tryEmitEmpty();
+        assertThat(filter.getLimit().getInFlight()).isZero();
+    }
+
+    @Test
+    void filter_neverRejectsHealthChecks() {
+        var filter = filter(1);
+        filter.filter(exchange("/r4/timing/asHumanReadableText"), ex -> Mono.never()).subscribe();
+
+        var health = exchange("/health");
+        WebFilterChain chain = ex -> {
+            ex.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.empty();
+        };
+        StepVerifier.create(filter.filter(health, chain)).verifyComplete();
+
+        assertThat(health.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void filter_releasesSlotOfCancelledRequests() {
+        var filter = filter(1);
+
+        var subscription = filter.filter(exchange("/r4/dosage/asHumanReadableText"), ex -> Mono.never()).subscribe();
+        assertThat(filter.getLimit().getInFlight()).isOne();
+
+        subscription.dispose();
+        assertThat(filter.getLimit().getInFlight()).isZero();
+        assertThat(filter.getLimit().getLimit()).isOne();
+    }
+
+    @Test
+    void filter_runsAfterTheTraceIdFilter() {
+        List<WebFilter> filters = new ArrayList<>(List.of(filter(1), new BelGovTraceIdFilter()));
+        AnnotationAwareOrderComparator.sort(filters);
+
+        assertThat(filters).first().isInstanceOf(BelGovTraceIdFilter.class);
+
+        // Rejections go through the trace id filter too
+        var exchange = exchange("/r4/dosage/asHumanReadableText");
+        filters.get(1).filter(exchange("/r4/dosage/asHumanReadableText"), ex -> Mono.never()).subscribe();
+        WebFilterChain chain = new DefaultWebFilterChain(ex -> Mono.error(new AssertionError("Must not be called")), filters);
+        StepVerifier.create(chain.filter(exchange)).verifyComplete();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(exchange.getResponse().getHeaders().getFirst("BelGov-Trace-Id")).isNotBlank();
+    }
+
+    private AdmissionControlFilter filter(int limit) {
+        var properties = new AdmissionControlProperties();
+        properties.setInitialLimit(limit);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(limit);
+        properties.setRetryAfter(Duration.ofMillis(1500));
+        return new AdmissionControlFilter(properties, Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    private MockServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post(path));
+    }
+}
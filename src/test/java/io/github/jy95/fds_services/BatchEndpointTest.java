@@ -0,0 +1,148 @@
+package io.github.jy95.fds_services;
+
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureWebTestClient(timeout = "30s")
+class BatchEndpointTest implements DosageConversionSupport {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void dosageBatch_returnsOneResponsePerEntryInOrder() {
+        String batch = """
+                {"entries": [
+                  {"dosages": [{"text": "A"}], "params": {"locales": ["en"]}},
+                  {"dosages": [{"text": "B"}, {"text": "C"}], "params": {"locales": ["fr", "de"], "outputFormat": "DETAILED"}},
+                  {"dosages": [{"text": "A"}], "params": {"locales": ["en"]}},
+                  {"dosages": [{"text": "A"}], "params": {"locales": ["nl"], "displaySeparator": " | "}}
+                ]}
+                """;
+
+        for (String version : List.of("r4", "r5")) {
+            webTestClient
+                    .post()
+                    .uri("/" + version + "/dosage/asHumanReadableText/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(batch)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.responses.length()").isEqualTo(4)
+                    .jsonPath("$.responses[0].items.length()").isEqualTo(1)
+                    .jsonPath("$.responses[0].items[0].translations.en").exists()
+                    .jsonPath("$.responses[1].items.length()").isEqualTo(2)
+                    .jsonPath("$.responses[1].items[1].translations.fr").exists()
+                    .jsonPath("$.responses[1].items[1].translations.de").exists()
+                    .jsonPath("$.responses[1].issues.length()").isEqualTo(0)
+                    .jsonPath("$.responses[2].items[0].translations.en").exists()
+                    .jsonPath("$.responses[3].items[0].translations.nl").exists();
+        }
+    }
+
+    @Test
+    void batch_rejectsMoreEntriesThanAllowed() {
+        String entry = "{\"dosages\": [{\"text\": \"A\"}]}";
+        String batch = "{\"entries\": [" + String.join(",", Collections.nCopies(101, entry)) + "]}";
+
+        webTestClient
+                .post()
+                .uri("/r4/dosage/asHumanReadableText/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(batch)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.issues[0].name").isEqualTo("entries")
+                .jsonPath("$.issues[0].detail").isEqualTo("size must be between 0 and 100");
+    }
+
+    @Test
+    void timingBatch_returnsOneResponsePerEntryInOrder() {
+        String batch = """
+                {"entries": [
+                  {"timings": [{"repeat": {"frequency": 2, "period": 1, "periodUnit": "d"}}], "params": {"locales": ["en"]}},
+                  {"timings": [{"repeat": {"frequency": 3, "period": 1, "periodUnit": "d"}}], "params": {"locales": ["fr"]}}
+                ]}
+                """;
+
+        for (String version : List.of("r4", "r5")) {
+            webTestClient
+                    .post()
+                    .uri("/" + version + "/timing/asHumanReadableText/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(batch)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.responses.length()").isEqualTo(2)
+                    .jsonPath("$.responses[0].items[0].translations.en").exists()
+                    .jsonPath("$.responses[1].items[0].translations.fr").exists();
+        }
+    }
+
+    @Test
+    void dosageBatch_rejectsEntriesWithoutDosages() {
+        webTestClient
+                .post()
+                .uri("/r4/dosage/asHumanReadableText/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"entries\": [{\"params\": {\"locales\": [\"en\"]}}]}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.type").isEqualTo("urn:problem-type:belgif:badRequest");
+    }
+
+    @Test
+    void processBatch_processesIdenticalEntriesOnceAndKeepsOrder() {
+        Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        var entries = List.of("c", "a", "b", "a", "fail", "c", "a");
+
+        List<String> responses = processBatch(
+                entries,
+                entry -> entry,
+                (entry, key) -> {
+                    calls.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                    if (entry.equals("fail")) {
+                        return Mono.error(new IllegalArgumentException("Invalid entry"));
+                    }
+                    // Later entries complete first
+                    return Mono.just(entry.toUpperCase()).delayElement(Duration.ofMillis('d' - entry.charAt(0)));
+                },
+                e -> createEntryProblemDetail(e).getTitle(),
+                4
+        ).block(Duration.ofSeconds(5));
+
+        assertThat(responses).containsExactly("C", "A", "B", "A", "Bad Request", "C", "A");
+        assertThat(calls).hasSize(4).allSatisfy((key, count) -> assertThat(count.get()).isOne());
+    }
+
+    @Test
+    void createEntryProblemDetail_mapsInvalidInputToBadRequest() {
+        ProblemDetail problem = createEntryProblemDetail(new IllegalArgumentException("Invalid dosage"));
+
+        assertThat(problem.getStatus()).isEqualTo(400);
+        assertThat(problem.getType()).hasToString("urn:problem-type:belgif:badRequest");
+        assertThat(problem.getDetail()).isEqualTo("Invalid dosage");
+        assertThat(createEntryProblemDetail(new IllegalStateException()).getStatus()).isEqualTo(500);
+    }
+}
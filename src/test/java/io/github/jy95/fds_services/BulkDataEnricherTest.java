@@ -0,0 +1,100 @@
+package io.github.jy95.fds_services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import io.github.jy95.fds_services.service.BulkDataEnricher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BulkDataEnricherTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String REQUEST = """
+            {"resourceType":"MedicationRequest","id":"rq","status":"active","dosageInstruction":[
+              {"timing":{"repeat":{"frequency":2,"period":1,"periodUnit":"d"}}},
+              {"text":"Keep me","timing":{"repeat":{"frequency":3,"period":1,"periodUnit":"d"}}}
+            ]}""";
+
+    private static final String STATEMENT = """
+            {"resourceType":"MedicationStatement","id":"st","unknownField":{"kept":true},"dosage":[
+              {"timing":{"repeat":{"frequency":1,"period":1,"periodUnit":"wk"}}}
+            ]}""";
+
+    private static final String PATIENT = """
+            {"resourceType":"Patient","id":"pt"}""";
+
+    @Autowired
+    private BulkDataEnricher enricher;
+
+    @Test
+    void enrich_fillsMissingTextsAndKeepsTheRest() {
+        for (FhirVersion version : FhirVersion.values()) {
+            var resources = enrich(version, false, REQUEST, STATEMENT, PATIENT);
+
+            assertThat(resources).extracting(resource -> resource.get("id").asText()).containsExactly("rq", "st", "pt");
+
+            var dosages = resources.get(0).get("dosageInstruction");
+            assertThat(dosages.get(0).path("text").asText()).isNotBlank();
+            assertThat(dosages.get(1).get("text").asText()).isEqualTo("Keep me");
+
+            assertThat(resources.get(1).at("/dosage/0/text").asText()).isNotBlank();
+            assertThat(resources.get(1).at("/unknownField/kept").asBoolean()).isTrue();
+
+            assertThat(resources.get(2)).isEqualTo(read(PATIENT));
+        }
+    }
+
+    @Test
+    void enrich_overwritesExistingTextsWhenAsked() {
+        String blankText = """
+                {"resourceType":"MedicationRequest","dosageInstruction":[{"text":"","timing":{"repeat":{"frequency":2,"period":1,"periodUnit":"d"}}}]}""";
+
+        assertThat(enrich(FhirVersion.R4, false, blankText).getFirst().at("/dosageInstruction/0/text").asText()).isEmpty();
+        assertThat(enrich(FhirVersion.R4, true, blankText).getFirst().at("/dosageInstruction/0/text").asText()).isNotBlank();
+    }
+
+    @Test
+    void enrich_keepsResourcesWithInvalidDosages() {
+        String invalid = """
+                {"resourceType":"MedicationRequest","id":"bad","dosageInstruction":[{"timing":{"repeat":{"frequency":"often"}}}]}""";
+
+        var resources = enrich(FhirVersion.R4, false, invalid, REQUEST);
+
+        assertThat(resources).hasSize(2);
+        assertThat(resources.get(0).at("/dosageInstruction/0/text").isMissingNode()).isTrue();
+        assertThat(resources.get(1).at("/dosageInstruction/0/text").asText()).isNotBlank();
+    }
+
+    private List<JsonNode> enrich(FhirVersion version, boolean overwrite, String... resources) {
+        return enricher
+                .enrich(
+                        Flux.fromArray(resources).map(BulkDataEnricherTest::read),
+                        version,
+                        Locale.ENGLISH,
+                        new ParamsDto(),
+                        overwrite
+                )
+                .collectList()
+                .block(Duration.ofSeconds(30));
+    }
+
+    private static JsonNode read(String json) {
+        try {
+            return MAPPER.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
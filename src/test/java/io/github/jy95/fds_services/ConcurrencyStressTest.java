@@ -0,0 +1,132 @@
+package io.github.jy95.fds_services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the four endpoints in parallel, and checks each response is identical to the one obtained sequentially.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+class ConcurrencyStressTest {
+
+    private static final int VARIANTS = 25;
+    private static final int ROUNDS = 4;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private record Call(String uri, String body) {}
+
+    @BeforeEach
+    void setUp() {
+        // The first parse of each FHIR version initializes its model
+        webTestClient = webTestClient
+                .mutate()
+                .responseTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @Test
+    @SneakyThrows
+    void allEndpoints_inParallel_matchSequentialResults() {
+        List<Call> calls = new ArrayList<>();
+        for (int i = 0; i < VARIANTS; i++) {
+            calls.add(new Call("/r4/dosage/asHumanReadableText", dosageRequest(i)));
+            calls.add(new Call("/r5/dosage/asHumanReadableText", dosageRequest(i)));
+            calls.add(new Call("/r4/timing/asHumanReadableText", timingRequest(i)));
+            calls.add(new Call("/r5/timing/asHumanReadableText", timingRequest(i)));
+        }
+
+        // Reference responses, one request at a time
+        Map<Call, String> expected = new LinkedHashMap<>();
+        for (Call call : calls) {
+            String response = post(call);
+            JsonNode json = mapper.readTree(response);
+            assertThat(json.get("issues")).isEmpty();
+            assertThat(json.get("items")).isNotEmpty();
+            expected.put(call, response);
+        }
+
+        // Same requests, interleaved across threads
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            Map<Future<String>, Call> futures = new LinkedHashMap<>();
+            for (int round = 0; round < ROUNDS; round++) {
+                for (Call call : calls) {
+                    futures.put(executor.submit(() -> post(call)), call);
+                }
+            }
+
+            for (var entry : futures.entrySet()) {
+                assertThat(entry.getKey().get())
+                        .as(entry.getValue().uri())
+                        .isEqualTo(expected.get(entry.getValue()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String post(Call call) {
+        byte[] body = webTestClient
+                .post()
+                .uri(call.uri())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(call.body())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .returnResult()
+                .getResponseBody();
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    // Result cache is bypassed, so that every request goes through the parsers
+    private String dosageRequest(int i) {
+        return """
+                {
+                  "dosages": [
+                    {"text": "Dosage %d", "timing": {"repeat": {"frequency": %d, "period": 1, "periodUnit": "d"}}},
+                    {"timing": {"repeat": {"frequency": 1, "period": %d, "periodUnit": "h"}}}
+                  ],
+                  "params": {"locales": ["en", "fr"], "outputFormat": "DETAILED", "useResultCache": false}
+                }
+                """.formatted(i, i % 5 + 1, i + 1);
+    }
+
+    private String timingRequest(int i) {
+        return """
+                {
+                  "timings": [
+                    {"repeat": {"frequency": %d, "period": 1, "periodUnit": "d"}},
+                    {"repeat": {"frequency": 1, "period": %d, "periodUnit": "wk", "dayOfWeek": ["mon"]}}
+                  ],
+                  "params": {"locales": ["en", "fr"], "outputFormat": "DETAILED", "useResultCache": false}
+                }
+                """.formatted(i % 5 + 1, i % 3 + 1);
+    }
+}
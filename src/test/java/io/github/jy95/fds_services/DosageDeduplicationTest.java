@@ -0,0 +1,141 @@
+package io.github.jy95.fds_services;
+
+import io.github.jy95.fds.r4.DosageAPIR4;
+import io.github.jy95.fds_services.utility.ConcurrencyLimiter;
+import io.github.jy95.fds_services.utility.DeduplicationStats;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import io.github.jy95.fds_services.utility.DosageGroupKey;
+import io.github.jy95.fds_services.utility.SharedTranslations;
+import io.github.jy95.fds_services.utility.TranslationOptions;
+import org.hl7.fhir.r4.model.Dosage;
+import org.hl7.fhir.r4.model.Timing;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DosageDeduplicationTest implements DosageConversionSupport {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void identicalGroups_areTranslatedOncePerLocale() {
+        var locales = List.of(Locale.ENGLISH, Locale.FRENCH);
+        var resolvers = createResolversForLocales(locales, this::resolver);
+        var stats = new DeduplicationStats();
+        var options = new TranslationOptions(Schedulers.immediate(), 8, ConcurrencyLimiter.unlimited(), null, stats);
+
+        // "b" first completes last : repeated groups still come out at their own position
+        var dosages = List.of(group("b"), group("a"), group("b"), group("c"), group("a"), group("b"));
+        var response = translateDosagesWithIssues(dosages, locales, resolvers, options).block(Duration.ofSeconds(5));
+
+        assertThat(response.getIssues()).isEmpty();
+        assertThat(response.getItems())
+                .extracting(item -> item.getTranslations().get("en") + "/" + item.getTranslations().get("fr"))
+                .containsExactly("en-b/fr-b", "en-a/fr-a", "en-b/fr-b", "en-c/fr-c", "en-a/fr-a", "en-b/fr-b");
+        assertThat(calls.get()).isEqualTo(3 * locales.size());
+        assertThat(stats.groups()).isEqualTo(6);
+        assertThat(stats.translatedGroups()).isEqualTo(3);
+        assertThat(stats.ratio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void singleGroups_areNeitherHashedNorCounted() {
+        var resolvers = createResolversForLocales(List.of(Locale.ENGLISH), this::resolver);
+        var stats = new DeduplicationStats();
+        var options = new TranslationOptions(Schedulers.immediate(), 8, ConcurrencyLimiter.unlimited(), null, stats);
+
+        translateDosagesWithIssues(List.of(group("a")), List.of(Locale.ENGLISH), resolvers, options)
+                .block(Duration.ofSeconds(5));
+
+        assertThat(calls.get()).isOne();
+        assertThat(stats.groups()).isZero();
+    }
+
+    @Test
+    void withoutStats_everyGroupIsTranslated() {
+        var resolvers = createResolversForLocales(List.of(Locale.ENGLISH), this::resolver);
+        var options = new TranslationOptions(Schedulers.immediate(), 8, ConcurrencyLimiter.unlimited(), null, null);
+
+        var response = translateDosagesWithIssues(List.of(group("a"), group("a")), List.of(Locale.ENGLISH), resolvers, options)
+                .block(Duration.ofSeconds(5));
+
+        assertThat(response.getItems()).hasSize(2);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void sharedTranslations_translateGroupsOncePerResolverAcrossRequests() {
+        var english = resolver(Locale.ENGLISH);
+        var options = new TranslationOptions(Schedulers.immediate(), 8, ConcurrencyLimiter.unlimited())
+                .sharing(new SharedTranslations());
+
+        var locales = List.of(Locale.ENGLISH);
+        Map<Locale, DosageAPIR4> resolvers = Map.of(Locale.ENGLISH, english);
+
+        // Two entries of a batch, and a third one resolved to another resolver for the same locale
+        var first = translateDosagesWithIssues(List.of(group("b"), group("a")), locales, resolvers, options);
+        var second = translateDosagesWithIssues(List.of(group("a"), group("b")), locales, resolvers, options);
+        var other = translateDosagesWithIssues(
+                List.of(group("a")), locales, Map.of(Locale.ENGLISH, resolver(Locale.ENGLISH)), options
+        );
+
+        var responses = Flux.merge(first, second, other).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(responses)
+                .allSatisfy(response -> assertThat(response.getIssues()).isEmpty())
+                .extracting(response -> response.getItems().size())
+                .containsExactlyInAnyOrder(2, 2, 1);
+        assertThat(second.block(Duration.ofSeconds(5)).getItems())
+                .extracting(item -> item.getTranslations().get("en"))
+                .containsExactly("en-a", "en-b");
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void groupKey_comparesContentNotInstances() {
+        var timing = new Timing().setRepeat(new Timing.TimingRepeatComponent()
+                .setFrequency(2)
+                .setPeriod(1)
+                .setPeriodUnit(Timing.UnitsOfTime.D));
+
+        assertThat(DosageGroupKey.of(List.of(new Dosage().setTiming(timing.copy()))))
+                .isEqualTo(DosageGroupKey.of(List.of(new Dosage().setTiming(timing.copy()))))
+                .hasSameHashCodeAs(DosageGroupKey.of(List.of(new Dosage().setTiming(timing.copy()))))
+                .isNotEqualTo(DosageGroupKey.of(List.of(new Dosage().setTiming(timing.copy()).setSequence(1))))
+                .isNotEqualTo(DosageGroupKey.of(List.of(
+                        new Dosage().setTiming(timing.copy()),
+                        new Dosage().setTiming(timing.copy())
+                )));
+    }
+
+    private DosageAPIR4 resolver(Locale locale) {
+        var resolver = mock(DosageAPIR4.class);
+        when(resolver.asHumanReadableText(anyList())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            List<Dosage> dosages = invocation.getArgument(0);
+            String text = dosages.getFirst().getText();
+            return CompletableFuture.supplyAsync(
+                    () -> locale.getLanguage() + "-" + text,
+                    CompletableFuture.delayedExecutor(text.equals("b") ? 50 : 0, TimeUnit.MILLISECONDS)
+            );
+        });
+        return resolver;
+    }
+
+    private static List<Dosage> group(String text) {
+        return List.of(new Dosage().setText(text));
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.jy95.fds_services;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jy95.fds_services.codec.DosageResponseEncoder;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.dto.LocalizedDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DosageResponseEncoderTest {
+
+    private static final ResolvableType TYPE = ResolvableType.forClass(DosageResponseDto.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ServerCodecConfigurer codecConfigurer;
+
+    @Test
+    void encodeValue_writesTheSameJsonAsJackson() throws Exception {
+        var issue = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, "Translation timed out");
+        issue.setType(URI.create("https://www.gcloud.belgium.be/rest/problems/serviceUnavailable"));
+        issue.setProperty("locale", "fr");
+
+        var response = DosageResponseDto.builder()
+                .items(List.of(
+                        LocalizedDto.builder().entry("en", "2 times a day").entry("de", "2 mal täglich").build(),
+                        LocalizedDto.builder().entry("en", "\"quoted\"\n ").build(),
+                        LocalizedDto.builder().build()
+                ))
+                .issues(List.of(issue))
+                .build();
+
+        assertThat(encode(response)).isEqualTo(objectMapper.writeValueAsString(response));
+    }
+
+    @Test
+    void encodeValue_writesMissingFieldsAsJackson() throws Exception {
+        var empty = DosageResponseDto.builder().build();
+        var nulls = new DosageResponseDto(null, null);
+        var nullItem = new DosageResponseDto(Arrays.asList((LocalizedDto) null), List.of());
+
+        for (var response : List.of(empty, nulls, nullItem)) {
+            assertThat(encode(response)).isEqualTo(objectMapper.writeValueAsString(response));
+        }
+    }
+
+    @Test
+    void encode_writesSeveralResponsesAsAnArray() throws Exception {
+        var responses = List.of(
+                DosageResponseDto.builder().items(List.of(LocalizedDto.builder().entry("en", "a").build())).build(),
+                DosageResponseDto.builder().build()
+        );
+
+        String json = DataBufferUtils.join(new DosageResponseEncoder(objectMapper).encode(
+                        Flux.fromIterable(responses),
+                        DefaultDataBufferFactory.sharedInstance,
+                        TYPE,
+                        MediaType.APPLICATION_JSON,
+                        Map.of()
+                ))
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .block();
+
+        assertThat(json).isEqualTo(objectMapper.writeValueAsString(responses));
+    }
+
+    @Test
+    void dtos_haveNoPropertyTheEncoderDoesNotWrite() {
+        // A property added to a DTO must also be written by the encoder
+        DosageResponseEncoder.WRITTEN_PROPERTIES.forEach((type, written) ->
+                assertThat(DosageResponseEncoder.serializedProperties(objectMapper, type))
+                        .as("Properties of %s", type.getSimpleName())
+                        .isEqualTo(written)
+        );
+    }
+
+    @Test
+    void encoder_stepsAsideWhenTheDtosChange() {
+        var changed = objectMapper.copy().addMixIn(DosageResponseDto.class, WithoutIssues.class);
+
+        assertThat(new DosageResponseEncoder(changed).canEncode(TYPE, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(new DosageResponseEncoder(objectMapper).canEncode(TYPE, MediaType.APPLICATION_JSON)).isTrue();
+    }
+
+    @Test
+    void codecs_preferTheEncoderForJsonResponses() {
+        var writer = codecConfigurer.getWriters()
+                .stream()
+                .filter(candidate -> candidate.canWrite(TYPE, MediaType.APPLICATION_JSON))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(writer).isInstanceOf(EncoderHttpMessageWriter.class);
+        Encoder<?> encoder = ((EncoderHttpMessageWriter<?>) writer).getEncoder();
+        assertThat(encoder).isInstanceOf(DosageResponseEncoder.class);
+    }
+
+    @JsonIgnoreProperties("issues")
+    private abstract static class WithoutIssues {
+    }
+
+    private String encode(DosageResponseDto response) {
+        return new DosageResponseEncoder(objectMapper)
+                .encode(Mono.just(response), DefaultDataBufferFactory.sharedInstance, TYPE, MediaType.APPLICATION_JSON, Map.of())
+                .single()
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .block();
+    }
+}
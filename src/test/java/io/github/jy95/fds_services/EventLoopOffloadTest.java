@@ -0,0 +1,102 @@
+package io.github.jy95.fds_services;
+
+import io.github.jy95.fds_services.service.DosageAPICacheR4Impl;
+import io.github.jy95.fds_services.service.DosageAPICacheR5Impl;
+import io.github.jy95.fds_services.service.FhirParserProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Runs against a real Netty server, and records on which threads parsing and resolver construction happen.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"fds.warmup.enabled=false", "fds.grpc.port=0"}
+)
+@AutoConfigureWebTestClient
+class EventLoopOffloadTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoSpyBean
+    private FhirParserProvider parsers;
+
+    @MockitoSpyBean
+    private DosageAPICacheR4Impl cacheR4;
+
+    @MockitoSpyBean
+    private DosageAPICacheR5Impl cacheR5;
+
+    private final Queue<String> threads = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        Answer<?> recordThread = invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return invocation.callRealMethod();
+        };
+        doAnswer(recordThread).when(parsers).withJsonParser(any(), any());
+        // Resolver caches are proxied (@Cacheable), the spies are behind the proxies
+        doAnswer(recordThread).when(AopTestUtils.<DosageAPICacheR4Impl>getUltimateTargetObject(cacheR4)).getCreator(any(), any());
+        doAnswer(recordThread).when(AopTestUtils.<DosageAPICacheR5Impl>getUltimateTargetObject(cacheR5)).getCreator(any(), any());
+
+        webTestClient = webTestClient
+                .mutate()
+                .responseTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @Test
+    void parsingAndResolvers_neverRunOnEventLoop() {
+        for (String version : new String[]{"r4", "r5"}) {
+            post("/" + version + "/dosage/asHumanReadableText", """
+                    {"dosages": [{"text": "Free text posology"}], "params": {"useResultCache": false}}
+                    """);
+            post("/" + version + "/timing/asHumanReadableText", """
+                    {"timings": [{"repeat": {"frequency": 2, "period": 1, "periodUnit": "d"}}], "params": {"useResultCache": false}}
+                    """);
+        }
+
+        // One parse per request, plus resolver constructions (cache misses only)
+        assertThat(threads).hasSizeGreaterThan(4);
+        assertThat(threads).noneMatch(name -> name.startsWith("reactor-http-nio"));
+        assertThat(threads).allMatch(name -> name.startsWith("fds-worker-"));
+    }
+
+    @Test
+    void workerPool_isObservable() {
+        assertThat(meterRegistry.find("executor.queued").tag("name", "fds.worker").gauge()).isNotNull();
+        assertThat(meterRegistry.find("executor.active").tag("name", "fds.worker").gauge()).isNotNull();
+    }
+
+    private void post(String uri, String body) {
+        webTestClient
+                .post()
+                .uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.jy95.fds_services;
+
+import io.github.jy95.fds_services.service.DosageAPICacheR4Impl;
+import io.github.jy95.fds_services.service.DosageAPICacheR5Impl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "fds.fhir.r5.enabled=false")
+class FhirVersionToggleTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Test
+    void disabledVersion_hasNoContextNorResolvers() {
+        assertThat(context.containsBean("fhirContextR5")).isFalse();
+        assertThat(context.getBeanNamesForType(DosageAPICacheR5Impl.class)).isEmpty();
+
+        assertThat(context.containsBean("fhirContextR4")).isTrue();
+        assertThat(context.getBeanNamesForType(DosageAPICacheR4Impl.class)).isNotEmpty();
+    }
+
+    @Test
+    void disabledVersion_hasNoEndpoints() {
+        var paths = handlerMapping
+                .getHandlerMethods()
+                .keySet()
+                .stream()
+                .flatMap(info -> info.getPatternsCondition().getPatterns().stream())
+                .map(Object::toString)
+                .toList();
+
+        assertThat(paths).anyMatch(path -> path.startsWith("/r4/"));
+        assertThat(paths).noneMatch(path -> path.startsWith("/r5/"));
+    }
+}
@@ -0,0 +1,193 @@
+package io.github.jy95.fds_services;
+
+import io.github.jy95.fds_services.grpc.AdmissionControlInterceptor;
+import io.github.jy95.fds_services.grpc.GrpcServerLifecycle;
+import io.github.jy95.fds_services.grpc.proto.FhirVersion;
+import io.github.jy95.fds_services.grpc.proto.Localized;
+import io.github.jy95.fds_services.grpc.proto.Params;
+import io.github.jy95.fds_services.grpc.proto.PayloadType;
+import io.github.jy95.fds_services.grpc.proto.TranslateRequest;
+import io.github.jy95.fds_services.grpc.proto.TranslateResponse;
+import io.github.jy95.fds_services.grpc.proto.TranslationServiceGrpc;
+import io.github.jy95.fds_services.utility.AimdLimit;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"fds.warmup.enabled=false", "fds.grpc.port=0"}
+)
+class GrpcServiceTest {
+
+    private static final String DOSAGE = """
+            {"timing":{"repeat":{"frequency":2,"period":1,"periodUnit":"d"}}}
+            """;
+
+    private static final String TIMING = """
+            {"repeat":{"frequency":3,"period":1,"periodUnit":"d"}}
+            """;
+
+    @Autowired
+    private GrpcServerLifecycle server;
+
+    @Autowired
+    private AimdLimit admissionLimit;
+
+    private final List<ManagedChannel> channels = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void closeChannels() {
+        channels.forEach(ManagedChannel::shutdownNow);
+    }
+
+    @Test
+    void translate_inProcess() {
+        var stub = TranslationServiceGrpc.newBlockingStub(open(server.inProcessChannel()));
+
+        for (FhirVersion version : List.of(FhirVersion.R4, FhirVersion.R5)) {
+            var dosages = stub.translate(request(version, PayloadType.DOSAGE, DOSAGE, "dosage"));
+            assertThat(dosages.getCorrelationId()).isEqualTo("dosage");
+            assertThat(dosages.getIssuesList()).isEmpty();
+            assertThat(dosages.getItemsList()).singleElement()
+                    .extracting(Localized::getTranslationsMap)
+                    .satisfies(translations -> assertThat(translations).containsOnlyKeys("en", "fr"));
+
+            var timings = stub.translate(request(version, PayloadType.TIMING, TIMING, "timing"));
+            assertThat(timings.getItemsList()).hasSize(1);
+        }
+    }
+
+    @Test
+    void translate_overTheNetwork() {
+        assertThat(server.getPort()).isPositive();
+        // Plaintext and unauthenticated : not reachable from other hosts by default
+        assertThat(server.getListenAddress().getAddress().isLoopbackAddress()).isTrue();
+        var channel = NettyChannelBuilder.forAddress(server.getListenAddress()).usePlaintext().build();
+        var stub = TranslationServiceGrpc.newBlockingStub(open(channel));
+
+        var response = stub.translate(request(FhirVersion.R4, PayloadType.DOSAGE, DOSAGE, "1"));
+
+        assertThat(response.getItemsList()).hasSize(1);
+    }
+
+    @Test
+    void translate_invalidElement_isInvalidArgument() {
+        var stub = TranslationServiceGrpc.newBlockingStub(open(server.inProcessChannel()));
+
+        assertThatThrownBy(() -> stub.translate(request(FhirVersion.R4, PayloadType.DOSAGE, "{not json", "1")))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e ->
+                        assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT)
+                );
+    }
+
+    @Test
+    void translate_invalidParams_isInvalidArgument() {
+        var stub = TranslationServiceGrpc.newBlockingStub(open(server.inProcessChannel()));
+        var request = request(FhirVersion.R4, PayloadType.DOSAGE, DOSAGE, "1")
+                .toBuilder()
+                .setParams(Params.newBuilder().addLocales("en").setTimeoutMillis(0))
+                .build();
+
+        assertThatThrownBy(() -> stub.translate(request))
+                .isInstanceOfSatisfying(StatusRuntimeException.class, e -> {
+                    assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT);
+                    assertThat(e.getStatus().getDescription()).contains("timeoutMillis");
+                });
+    }
+
+    @Test
+    void translate_overTheAdmissionLimit_isResourceExhausted() {
+        var stub = TranslationServiceGrpc.newBlockingStub(open(server.inProcessChannel()));
+        int taken = 0;
+        while (admissionLimit.tryAcquire()) {
+            taken++;
+        }
+
+        try {
+            assertThatThrownBy(() -> stub.translate(request(FhirVersion.R4, PayloadType.DOSAGE, DOSAGE, "1")))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class, e -> {
+                        assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED);
+                        assertThat(e.getTrailers().get(AdmissionControlInterceptor.RETRY_AFTER)).isEqualTo("1");
+                    });
+        } finally {
+            for (int i = 0; i < taken; i++) {
+                admissionLimit.onIgnore();
+            }
+        }
+
+        assertThat(stub.translate(request(FhirVersion.R4, PayloadType.DOSAGE, DOSAGE, "2")).getItemsList()).hasSize(1);
+    }
+
+    @Test
+    void translateStream_answersEveryRequest() throws Exception {
+        var stub = TranslationServiceGrpc.newStub(open(server.inProcessChannel()));
+        var responses = new CopyOnWriteArrayList<TranslateResponse>();
+        var done = new CompletableFuture<Void>();
+
+        var requests = stub.translateStream(new StreamObserver<>() {
+            @Override
+            public void onNext(TranslateResponse response) {
+                responses.add(response);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                done.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                done.complete(null);
+            }
+        });
+        for (int i = 0; i < 50; i++) {
+            // Every tenth request is broken, without ending the stream
+            String element = i % 10 == 9 ? "{not json" : DOSAGE;
+            requests.onNext(request(i % 2 == 0 ? FhirVersion.R4 : FhirVersion.R5, PayloadType.DOSAGE, element, String.valueOf(i)));
+        }
+        requests.onCompleted();
+        done.get(30, TimeUnit.SECONDS);
+
+        assertThat(responses)
+                .extracting(TranslateResponse::getCorrelationId)
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(0, 50).mapToObj(String::valueOf).toList());
+        assertThat(responses)
+                .filteredOn(response -> !response.getIssuesList().isEmpty())
+                .hasSize(5)
+                .allSatisfy(response -> {
+                    assertThat(response.getItemsList()).isEmpty();
+                    assertThat(response.getIssues(0).getStatus()).isEqualTo(400);
+                });
+    }
+
+    private ManagedChannel open(ManagedChannel channel) {
+        channels.add(channel);
+        return channel;
+    }
+
+    private static TranslateRequest request(FhirVersion version, PayloadType type, String element, String correlationId) {
+        return TranslateRequest.newBuilder()
+                .setFhirVersion(version)
+                .setPayloadType(type)
+                .addElements(element)
+                .setParams(Params.newBuilder().addLocales("en").addLocales("fr").setUseResultCache(false))
+                .setCorrelationId(correlationId)
+                .build();
+    }
+}
@@ -0,0 +1,219 @@
+package io.github.jy95.fds_services;
+
+import io.github.jy95.fds.r4.DosageAPIR4;
+import io.github.jy95.fds.r5.DosageAPIR5;
+import io.github.jy95.fds_services.service.DosageAPICacheR4Impl;
+import io.github.jy95.fds_services.service.DosageAPICacheR5Impl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@AutoConfigureWebTestClient(timeout = "30s")
+class MedicationRequestEndpointTest {
+
+    private static final MediaType FHIR_JSON = MediaType.parseMediaType("application/fhir+json");
+
+    private static final String MEDICATION_REQUEST = """
+            {
+              "resourceType": "MedicationRequest",
+              "id": "%s",
+              "status": "active",
+              "intent": "order",
+              "subject": {"reference": "Patient/1"},
+              "dosageInstruction": [
+                {"timing": {"repeat": {"frequency": 2, "period": 1, "periodUnit": "d"}}},
+                {"timing": {"repeat": {"frequency": 1, "period": 1, "periodUnit": "wk"}}}
+              ]
+            }
+            """;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoSpyBean
+    private DosageAPICacheR4Impl cacheR4;
+
+    @MockitoSpyBean
+    private DosageAPICacheR5Impl cacheR5;
+
+    @Test
+    void medicationRequest_getsTextsAndTranslations() {
+        for (String version : List.of("r4", "r5")) {
+            post(version, MEDICATION_REQUEST.formatted("mr"))
+                    .expectStatus().isOk()
+                    .expectHeader().contentTypeCompatibleWith(FHIR_JSON)
+                    .expectBody()
+                    .jsonPath("$.resourceType").isEqualTo("MedicationRequest")
+                    .jsonPath("$.id").isEqualTo("mr")
+                    .jsonPath("$.subject.reference").isEqualTo("Patient/1")
+                    .jsonPath("$.dosageInstruction.length()").isEqualTo(2)
+                    .jsonPath("$.dosageInstruction[0].text").isNotEmpty()
+                    .jsonPath("$.dosageInstruction[1].text").isNotEmpty()
+                    .jsonPath("$.dosageInstruction[0]._text.extension[0].url")
+                    .isEqualTo("http://hl7.org/fhir/StructureDefinition/translation")
+                    .jsonPath("$.dosageInstruction[0]._text.extension[0].extension[0].valueCode").isEqualTo("fr")
+                    .jsonPath("$.dosageInstruction[0]._text.extension[0].extension[1].valueString").isNotEmpty();
+        }
+    }
+
+    @Test
+    void bundle_getsEveryMedicationRequestFilled() {
+        String bundle = """
+                {
+                  "resourceType": "Bundle",
+                  "type": "collection",
+                  "entry": [
+                    {"resource": %s},
+                    {"resource": {"resourceType": "Patient", "id": "1"}},
+                    {"resource": %s}
+                  ]
+                }
+                """.formatted(MEDICATION_REQUEST.formatted("a"), MEDICATION_REQUEST.formatted("b"));
+
+        for (String version : List.of("r4", "r5")) {
+            post(version, bundle)
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.entry.length()").isEqualTo(3)
+                    .jsonPath("$.entry[0].resource.dosageInstruction[1].text").isNotEmpty()
+                    .jsonPath("$.entry[1].resource.resourceType").isEqualTo("Patient")
+                    .jsonPath("$.entry[2].resource.id").isEqualTo("b")
+                    .jsonPath("$.entry[2].resource.dosageInstruction[0].text").isNotEmpty();
+        }
+    }
+
+    @Test
+    void otherResourceOrInvalidJson_isBadRequest() {
+        post("r4", "{\"resourceType\": \"Patient\"}").expectStatus().isBadRequest();
+        post("r4", "{ not json").expectStatus().isBadRequest();
+    }
+
+    @Test
+    void failingLocale_isReportedAsWarning() {
+        failFor(Locale.FRENCH);
+
+        post("r4", MEDICATION_REQUEST.formatted("mr"), " | ")
+                .expectStatus().isOk()
+                .expectHeader().valueMatches(HttpHeaders.WARNING, "199 - \"fr: Resolver is broken\"")
+                .expectBody()
+                .jsonPath("$.dosageInstruction[0].text").isNotEmpty()
+                .jsonPath("$.dosageInstruction[0]._text").doesNotExist();
+    }
+
+    @Test
+    void failingFirstLocale_stillGetsTheOtherTranslations() {
+        failFor(Locale.ENGLISH);
+
+        for (String version : List.of("r4", "r5")) {
+            post(version, MEDICATION_REQUEST.formatted("mr"), " / ")
+                    .expectStatus().isOk()
+                    .expectHeader().exists(HttpHeaders.WARNING)
+                    .expectBody()
+                    .jsonPath("$.dosageInstruction[0].text").doesNotExist()
+                    .jsonPath("$.dosageInstruction[0]._text.extension[0].extension[0].valueCode").isEqualTo("fr")
+                    .jsonPath("$.dosageInstruction[1]._text.extension[0].extension[1].valueString").isNotEmpty();
+        }
+    }
+
+    @Test
+    void everyLocaleFailing_isAProblem() {
+        failFor(Locale.ENGLISH);
+        failFor(Locale.FRENCH);
+
+        post("r4", MEDICATION_REQUEST.formatted("mr"), " ; ")
+                .expectStatus().isEqualTo(500)
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON)
+                .expectBody()
+                .jsonPath("$.type").isEqualTo("urn:problem-type:belgif:internalServerError")
+                .jsonPath("$.issues.length()").isEqualTo(4)
+                .jsonPath("$.issues[0].locale").isEqualTo("en");
+    }
+
+    @Test
+    void identicalRequest_isServedFromTheResultCache() {
+        var calls = new AtomicInteger();
+        for (Locale locale : List.of(Locale.ENGLISH, Locale.FRENCH)) {
+            var r4 = mock(DosageAPIR4.class);
+            when(r4.asHumanReadableText(anyList())).thenAnswer(invocation -> {
+                calls.incrementAndGet();
+                return CompletableFuture.completedFuture("Translated");
+            });
+            doReturn(r4).when(AopTestUtils.<DosageAPICacheR4Impl>getUltimateTargetObject(cacheR4)).getCreator(eq(locale), any());
+        }
+
+        for (int i = 0; i < 2; i++) {
+            post("r4", MEDICATION_REQUEST.formatted("mr"), " ~ ")
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.dosageInstruction[1].text").isEqualTo("Translated");
+        }
+
+        // Two dosages, two locales : translated once
+        assertThat(calls.get()).isEqualTo(4);
+    }
+
+    @Test
+    void withoutLocales_isBadRequest() {
+        webTestClient
+                .post()
+                .uri("/r4/medicationRequest/asHumanReadableText?locales=")
+                .contentType(FHIR_JSON)
+                .bodyValue(MEDICATION_REQUEST.formatted("mr"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    /**
+     * Resolvers of that locale fail. Resolvers are cached : tests use their own separator, for resolvers of their own.
+     */
+    private void failFor(Locale locale) {
+        var failure = CompletableFuture.<String>failedFuture(new IllegalStateException("Resolver is broken"));
+        var r4 = mock(DosageAPIR4.class);
+        when(r4.asHumanReadableText(anyList())).thenReturn(failure);
+        var r5 = mock(DosageAPIR5.class);
+        when(r5.asHumanReadableText(anyList())).thenReturn(failure);
+
+        // Resolver caches are proxied (@Cacheable), the spies are behind the proxies
+        doReturn(r4).when(AopTestUtils.<DosageAPICacheR4Impl>getUltimateTargetObject(cacheR4)).getCreator(eq(locale), any());
+        doReturn(r5).when(AopTestUtils.<DosageAPICacheR5Impl>getUltimateTargetObject(cacheR5)).getCreator(eq(locale), any());
+    }
+
+    private WebTestClient.ResponseSpec post(String version, String body) {
+        return post(version, body, null);
+    }
+
+    private WebTestClient.ResponseSpec post(String version, String body, String displaySeparator) {
+        return webTestClient
+                .post()
+                .uri(builder -> builder
+                        .path("/" + version + "/medicationRequest/asHumanReadableText")
+                        .queryParam("locales", "en", "fr")
+                        .queryParamIfPresent("displaySeparator", Optional.ofNullable(displaySeparator))
+                        .build())
+                .contentType(FHIR_JSON)
+                .accept(FHIR_JSON)
+                .bodyValue(body)
+                .exchange();
+    }
+}
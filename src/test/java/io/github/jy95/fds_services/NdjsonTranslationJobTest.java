@@ -0,0 +1,212 @@
+package io.github.jy95.fds_services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jy95.fds_services.dto.LocalizedDto;
+import io.github.jy95.fds_services.enum_.BelgifProblemType;
+import io.github.jy95.fds_services.job.NdjsonTranslationJob;
+import io.github.jy95.fds_services.service.BulkDataEnricher;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NdjsonTranslationJobTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger translated = new AtomicInteger();
+
+    @Test
+    void run_writesOneLinePerInputLine() throws IOException {
+        Path input = write(List.of("{\"text\":\"a\"}", "", "{not json", "{\"text\":\"b\"}\r", "{\"text\":\"c\"}"));
+        Path output = directory.resolve("out.ndjson");
+
+        var result = job(input, output, 7, text -> text).run();
+
+        assertThat(result.lines()).isEqualTo(5);
+        assertThat(result.chunks()).isGreaterThan(1);
+        List<String> lines = Files.readAllLines(output);
+        assertThat(lines).hasSize(5);
+        assertThat(lines.get(0)).isEqualTo("{\"translations\":{\"en\":\"a\"}}");
+        assertThat(lines.get(1)).isEqualTo("{\"translations\":{}}");
+        // An invalid line tells why it has no translations
+        assertThat(MAPPER.readTree(lines.get(2)).get("translations").isEmpty()).isTrue();
+        assertThat(MAPPER.readTree(lines.get(2)).at("/issues/0/type").asText())
+                .isEqualTo(BelgifProblemType.BAD_REQUEST.getType());
+        assertThat(lines.get(3)).isEqualTo("{\"translations\":{\"en\":\"b\"}}");
+        assertThat(lines.get(4)).isEqualTo("{\"translations\":{\"en\":\"c\"}}");
+        // Only the output is left behind
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactlyInAnyOrder(input, output);
+        }
+    }
+
+    @Test
+    void run_keepsOrderAcrossChunks() throws IOException {
+        Path input = write(IntStream.range(0, 2_000).mapToObj(NdjsonTranslationJobTest::element).toList());
+        Path output = directory.resolve("out.ndjson");
+
+        var result = job(input, output, 1_000, text -> text).run();
+
+        assertThat(result.chunks()).isGreaterThan(20);
+        assertThat(Files.readAllLines(output))
+                .extracting(line -> MAPPER.readTree(line).at("/translations/en").asText())
+                .containsExactlyElementsOf(IntStream.range(0, 2_000).mapToObj(String::valueOf).toList());
+    }
+
+    @Test
+    void run_resumesFromCheckpoint() throws IOException {
+        Path input = write(IntStream.range(0, 1_000).mapToObj(NdjsonTranslationJobTest::element).toList());
+        Path output = directory.resolve("out.ndjson");
+
+        // Crash on the last chunk
+        assertThatThrownBy(() -> job(input, output, 1_000, text -> {
+            if (text.equals("999")) {
+                throw new IllegalStateException("Crash");
+            }
+            return text;
+        }).run()).hasRootCauseMessage("Crash");
+        assertThat(directory.resolve("out.ndjson.checkpoint")).exists();
+        assertThat(output).doesNotExist();
+
+        translated.set(0);
+        var result = job(input, output, 1_000, text -> text).run();
+
+        assertThat(result.resumedChunks()).isPositive();
+        assertThat(translated.get()).isLessThan(1_000);
+        assertThat(result.lines()).isEqualTo(1_000);
+        assertThat(Files.readAllLines(output)).hasSize(1_000).last().isEqualTo("{\"translations\":{\"en\":\"999\"}}");
+    }
+
+    @Test
+    void run_keepsTheOutputWhenAPartIsMissing() throws IOException {
+        Path input = write(List.of(element(1)));
+        Path output = Files.writeString(directory.resolve("out.ndjson"), "{\"translations\":{\"en\":\"1\"}}\n");
+        // Every chunk is done according to the checkpoint, but its part was deleted
+        Files.writeString(
+                directory.resolve("out.ndjson.checkpoint"),
+                "ndjson-translation-job v1 " + Files.size(input) + " 1000\n0 1\n"
+        );
+        Files.createDirectories(directory.resolve("out.ndjson.parts"));
+
+        assertThatThrownBy(() -> job(input, output, 1_000, text -> text).run())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("missing");
+        assertThat(output).hasContent("{\"translations\":{\"en\":\"1\"}}\n");
+    }
+
+    @Test
+    void run_copiesSkippedLinesWhenAsked() throws IOException {
+        Path input = write(List.of("{\"text\":\"a\"}", "", "{not json"));
+        Path output = directory.resolve("out.ndjson");
+
+        var job = new NdjsonTranslationJob(
+                input, output, 1_000, 1, Duration.ofSeconds(10), elements -> elements, true, MAPPER
+        );
+        var result = job.run();
+
+        assertThat(result.lines()).isEqualTo(3);
+        assertThat(result.linesPerSecond()).isPositive();
+        assertThat(Files.readAllLines(output)).containsExactly("{\"text\":\"a\"}", "", "{not json");
+    }
+
+    @Test
+    void run_keepsDecimalsOfResourcesAsWritten() throws IOException {
+        String resource = "{\"doseQuantity\":{\"value\":0.50},\"rate\":3.141592653589793238462643383279,\"count\":2}";
+        Path input = write(List.of(resource));
+        Path output = directory.resolve("out.ndjson");
+
+        var job = new NdjsonTranslationJob(
+                input, output, 1_000, 1, Duration.ofSeconds(10), elements -> elements, true,
+                BulkDataEnricher.resourceMapper(MAPPER)
+        );
+        job.run();
+
+        assertThat(Files.readAllLines(output)).containsExactly(resource);
+    }
+
+    @Test
+    void run_refusesCheckpointOfAnotherInput() throws IOException {
+        Path input = write(List.of(element(1)));
+        Path output = directory.resolve("out.ndjson");
+        Files.writeString(directory.resolve("out.ndjson.checkpoint"), "ndjson-translation-job v1 42 1000\n0 1\n");
+
+        assertThatThrownBy(() -> job(input, output, 1_000, text -> text).run())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private NdjsonTranslationJob job(Path input, Path output, long chunkSize, Function<String, String> translate) {
+        Function<Flux<JsonNode>, Flux<LocalizedDto>> translator = elements -> elements
+                .publishOn(Schedulers.parallel())
+                .map(element -> {
+                    String text = translate.apply(element.get("text").asText());
+                    translated.incrementAndGet();
+                    return LocalizedDto.builder().entry("en", text).build();
+                });
+        return new NdjsonTranslationJob(input, output, chunkSize, 4, Duration.ofSeconds(10), translator, false, MAPPER);
+    }
+
+    private Path write(List<String> lines) throws IOException {
+        return Files.writeString(directory.resolve("in.ndjson"), lines.stream().collect(Collectors.joining("\n", "", "\n")));
+    }
+
+    private static String element(int i) {
+        return "{\"text\":\"" + i + "\"}";
+    }
+
+    /**
+     * The batch profile, over the actual resolvers
+     */
+    @Nested
+    @SpringBootTest
+    @ActiveProfiles("batch")
+    class BatchProfile {
+
+        @TempDir
+        static Path files;
+
+        @DynamicPropertySource
+        static void job(DynamicPropertyRegistry registry) throws IOException {
+            Path input = Files.writeString(
+                    files.resolve("dosages.ndjson"),
+                    "{\"timing\":{\"repeat\":{\"frequency\":2,\"period\":1,\"periodUnit\":\"d\"}}}\n".repeat(10)
+            );
+            registry.add("fds.job.input", input::toString);
+            registry.add("fds.job.output", () -> files.resolve("translations.ndjson").toString());
+            registry.add("fds.job.params.locales", () -> "en,fr");
+            registry.add("fds.warmup.enabled", () -> "false");
+        }
+
+        @Test
+        void translatesInputOnStartup() throws IOException {
+            assertThat(Files.readAllLines(files.resolve("translations.ndjson")))
+                    .hasSize(10)
+                    .allSatisfy(line -> assertThat(MAPPER.readTree(line).get("translations").properties())
+                            .extracting(Map.Entry::getKey)
+                            .containsExactlyInAnyOrder("en", "fr"));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.jy95.fds_services;
+
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import io.github.jy95.fds_services.enum_.OutputFormat;
+import io.github.jy95.fds_services.enum_.PayloadType;
+import io.github.jy95.fds_services.generator.DosageApiKey;
+import io.github.jy95.fds_services.generator.TranslationResultKey;
+import io.github.jy95.fds_services.service.CachedTranslations;
+import io.github.jy95.fds_services.service.OffHeapTranslationStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapTranslationStoreTest {
+
+    @Test
+    void store_roundTripsTranslations() {
+        var store = new OffHeapTranslationStore(16 * 1024, Duration.ofHours(1));
+        var translations = CachedTranslations.of(List.of("2 fois par jour", "pendant 10 jours - à jeun"));
+
+        store.put(key("a"), translations);
+
+        assertThat(store.get(key("a"))).isEqualTo(translations);
+        assertThat(store.get(key("b"))).isNull();
+    }
+
+    @Test
+    void store_recyclesOldestSegmentWhenFull() {
+        // 16 segments of 64 bytes : one entry each
+        var store = new OffHeapTranslationStore(16 * 64, Duration.ofHours(1));
+        var translations = CachedTranslations.of(List.of("x".repeat(40)));
+
+        for (int i = 0; i <= 16; i++) {
+            store.put(key(String.valueOf(i)), translations);
+        }
+
+        // The 17th entry recycled the segment of the 1st one
+        assertThat(store.get(key("0"))).isNull();
+        assertThat(store.get(key("1"))).isEqualTo(translations);
+        assertThat(store.get(key("16"))).isEqualTo(translations);
+    }
+
+    @Test
+    void store_isDisabledWithoutCapacity() {
+        var store = new OffHeapTranslationStore(0, Duration.ofHours(1));
+
+        store.put(key("a"), CachedTranslations.of(List.of("text")));
+
+        assertThat(store.isEnabled()).isFalse();
+        assertThat(store.get(key("a"))).isNull();
+    }
+
+    @Test
+    void store_expiresAgainstTheOriginalWriteTime() {
+        var store = new OffHeapTranslationStore(16 * 1024, Duration.ofHours(1));
+        long now = System.nanoTime();
+
+        // Demoted after 59 minutes on heap : one minute left, not one hour
+        store.put(key("a"), new CachedTranslations(List.of("text"), now - Duration.ofMinutes(59).toNanos()));
+        store.put(key("b"), new CachedTranslations(List.of("text"), now - Duration.ofMinutes(61).toNanos()));
+
+        assertThat(store.get(key("a")).writtenAt()).isEqualTo(now - Duration.ofMinutes(59).toNanos());
+        assertThat(store.get(key("b"))).isNull();
+    }
+
+    private TranslationResultKey key(String digest) {
+        return new TranslationResultKey(
+                FhirVersion.R4,
+                PayloadType.DOSAGE,
+                digest,
+                DosageApiKey.of(Locale.FRENCH, ParamsDto.builder().build()),
+                OutputFormat.SUMMARY
+        );
+    }
+}
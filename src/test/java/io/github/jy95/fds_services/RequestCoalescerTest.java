@@ -0,0 +1,123 @@
+package io.github.jy95.fds_services;
+
+import io.github.jy95.fds_services.service.RequestCoalescer;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescerTest {
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+
+    @Test
+    void coalesce_sharesWorkOfIdenticalRequestsInFlight() {
+        var executions = new AtomicInteger();
+        var result = Sinks.<String>one();
+
+        var first = coalescer.coalesce("key", () -> {
+            executions.incrementAndGet();
+            return result.asMono();
+        });
+        var second = coalescer.coalesce("key", () -> {
+            executions.incrementAndGet();
+            return result.asMono();
+        });
+
+        StepVerifier
+                .create(Mono.zip(first, second))
+                .then(() -> result.tryEmitValue("done"))
+                .assertNext(tuple -> {
+                    assertThat(tuple.getT1()).isEqualTo("done");
+                    assertThat(tuple.getT2()).isEqualTo("done");
+                })
+                .verifyComplete();
+
+        assertThat(executions).hasValue(1);
+        assertThat(coalescer.inFlightCount()).isZero();
+    }
+
+    @Test
+    void coalesce_doesNotShareDifferentKeys() {
+        var executions = new AtomicInteger();
+
+        StepVerifier
+                .create(Mono.zip(
+                        coalescer.coalesce("a", () -> Mono.fromSupplier(executions::incrementAndGet)),
+                        coalescer.coalesce("b", () -> Mono.fromSupplier(executions::incrementAndGet))
+                ))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void coalesce_givesTheResultToSubscribersArrivingBeforeTheKeyIsReleased() {
+        var executions = new AtomicInteger();
+        var late = new AtomicReference<String>();
+        Supplier<Mono<String>> work = () -> Mono.fromSupplier(() -> "done-" + executions.incrementAndGet());
+
+        // Subscribes while the first result is being delivered, i.e. before the key is released
+        String first = coalescer
+                .coalesce("key", work)
+                .doOnNext(result -> coalescer.coalesce("key", work).subscribe(late::set))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(first).isEqualTo("done-1");
+        assertThat(late).hasValue("done-1");
+        assertThat(executions).hasValue(1);
+        assertThat(coalescer.inFlightCount()).isZero();
+    }
+
+    @Test
+    void coalesce_neverCompletesEmptyUnderConcurrency() throws InterruptedException {
+        var executor = Executors.newFixedThreadPool(8);
+        var empty = new AtomicInteger();
+        try {
+            for (int i = 0; i < 2_000; i++) {
+                executor.execute(() -> {
+                    String result = coalescer
+                            .coalesce("key", () -> Mono.fromSupplier(() -> "done").subscribeOn(Schedulers.parallel()))
+                            .block(Duration.ofSeconds(5));
+                    if (result == null) {
+                        empty.incrementAndGet();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(empty).hasValue(0);
+        assertThat(coalescer.inFlightCount()).isZero();
+    }
+
+    @Test
+    void coalesce_cancelsWorkOnceEverySubscriberLeft() {
+        var cancelled = new AtomicBoolean();
+        var work = Mono.<String>never().doOnCancel(() -> cancelled.set(true));
+
+        var first = coalescer.coalesce("key", () -> work).subscribe();
+        var second = coalescer.coalesce("key", () -> work).subscribe();
+
+        first.dispose();
+        assertThat(cancelled).isFalse();
+
+        second.dispose();
+        assertThat(cancelled).isTrue();
+        assertThat(coalescer.inFlightCount()).isZero();
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.jy95.fds_services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.github.jy95.fds_services.config.CacheConfig;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.service.DosageAPICacheR4Impl;
+import io.github.jy95.fds_services.service.DosageAPICacheR5Impl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        properties = {
+                "fds.cache.resolver.maximum-size=2MB",
+                "fds.cache.resolver.estimated-footprint=64KB"
+        }
+)
+class ResolverCacheTest {
+
+    // 2MB / 64KB
+    private static final long MAX_ENTRIES = 32;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DosageAPICacheR4Impl cacheR4;
+
+    @Autowired
+    private DosageAPICacheR5Impl cacheR5;
+
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCache(CacheConfig.R4_CACHE).clear();
+        cacheManager.getCache(CacheConfig.R5_CACHE).clear();
+    }
+
+    @Test
+    void resolverCacheR4_staysBoundedUnderHighCardinalityKeys() {
+        for (int i = 0; i < 2_000; i++) {
+            cacheR4.getCreator(Locale.ENGLISH, paramsWithSeparator(" " + i + " "));
+        }
+
+        var nativeCache = nativeCache(CacheConfig.R4_CACHE);
+        nativeCache.cleanUp();
+
+        assertThat(nativeCache.estimatedSize()).isLessThanOrEqualTo(MAX_ENTRIES);
+        assertThat(nativeCache.policy().eviction().orElseThrow().weightedSize().orElseThrow())
+                .isLessThanOrEqualTo(2L * 1024 * 1024);
+    }
+
+    @Test
+    void resolverCacheR5_staysBoundedUnderHighCardinalityKeys() {
+        for (int i = 0; i < 2_000; i++) {
+            cacheR5.getCreator(Locale.FRENCH, paramsWithSeparator(" " + i + " "));
+        }
+
+        var nativeCache = nativeCache(CacheConfig.R5_CACHE);
+        nativeCache.cleanUp();
+
+        assertThat(nativeCache.estimatedSize()).isLessThanOrEqualTo(MAX_ENTRIES);
+        assertThat(nativeCache.policy().eviction().orElseThrow().weightedSize().orElseThrow())
+                .isLessThanOrEqualTo(2L * 1024 * 1024);
+    }
+
+    @Test
+    void resolverCache_keepsFrequentlyUsedResolvers() {
+        var defaultParams = ParamsDto.builder().build();
+
+        // Make the default resolver hot
+        var hot = cacheR4.getCreator(Locale.ENGLISH, defaultParams);
+        for (int i = 0; i < 50; i++) {
+            cacheR4.getCreator(Locale.ENGLISH, defaultParams);
+        }
+
+        // Scan of one-off keys
+        for (int i = 0; i < 2_000; i++) {
+            cacheR4.getCreator(Locale.ENGLISH, paramsWithSeparator(" " + i + " "));
+        }
+        nativeCache(CacheConfig.R4_CACHE).cleanUp();
+
+        assertThat(cacheR4.getCreator(Locale.ENGLISH, defaultParams)).isSameAs(hot);
+    }
+
+    private ParamsDto paramsWithSeparator(String separator) {
+        return ParamsDto
+                .builder()
+                .displaySeparator(separator)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
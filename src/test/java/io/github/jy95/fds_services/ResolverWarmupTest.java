@@ -0,0 +1,58 @@
+package io.github.jy95.fds_services;
+
+import io.github.jy95.fds_services.config.CacheConfig;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.enum_.HealthStatus;
+import io.github.jy95.fds_services.service.HealthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        properties = {
+                "fds.warmup.locales=en,fr",
+                "fds.warmup.params[0].display-separator=;"
+        }
+)
+class ResolverWarmupTest {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    @Qualifier("dosageApiKeyGenerator")
+    private KeyGenerator keyGenerator;
+
+    @Autowired
+    private HealthService healthService;
+
+    @Test
+    void warmup_populatesResolverCachesThroughProxy() {
+        var params = ParamsDto.builder().displaySeparator(";").build();
+
+        for (String cacheName : List.of(CacheConfig.R4_CACHE, CacheConfig.R5_CACHE)) {
+            var cache = cacheManager.getCache(cacheName);
+            for (Locale locale : List.of(Locale.ENGLISH, Locale.FRENCH)) {
+                var key = keyGenerator.generate(this, null, locale, params);
+                assertThat(cache.get(key)).isNotNull();
+            }
+        }
+    }
+
+    @Test
+    void warmup_reportsReadyOnceCompleted() {
+        StepVerifier
+                .create(healthService.checkSystemHealth())
+                .expectNext(HealthStatus.UP)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.jy95.fds_services;
+
+import io.github.jy95.fds_services.dto.LocalizedDto;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureWebTestClient(timeout = "30s")
+class ServerSentEventsTest implements DosageConversionSupport {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void detailedOutput_isSentOneItemAtATimeThenSummary() {
+        String request = """
+                {
+                  "dosages": [{"text": "0"}, {"text": "1"}, {"text": "2"}, {"text": "3"}, {"text": "4"}],
+                  "params": {"locales": ["en", "fr"], "outputFormat": "DETAILED"}
+                }
+                """;
+
+        for (String uri : List.of("/r4/dosage/asHumanReadableText", "/r5/dosage/asHumanReadableText")) {
+            var events = webTestClient
+                    .post()
+                    .uri(uri)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(request)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                    .returnResult(new ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>>() {})
+                    .getResponseBody()
+                    .collectList()
+                    .block(Duration.ofSeconds(30));
+
+            assertThat(events).hasSize(6);
+            for (int i = 0; i < 5; i++) {
+                assertThat(events.get(i).event()).isEqualTo("item");
+                assertThat(events.get(i).id()).isEqualTo(String.valueOf(i));
+                assertThat(events.get(i).data().get("translations")).asInstanceOf(InstanceOfAssertFactories.MAP).containsOnlyKeys("en", "fr");
+            }
+            assertThat(events.get(5).event()).isEqualTo("summary");
+            assertThat(events.get(5).data()).containsEntry("items", 5).containsEntry("issues", 0);
+        }
+    }
+
+    @Test
+    void timingEvents_areAvailableToo() {
+        String request = """
+                {"timings": [{"repeat": {"frequency": 2, "period": 1, "periodUnit": "d"}}], "params": {"locales": ["de"]}}
+                """;
+
+        for (String uri : List.of("/r4/timing/asHumanReadableText", "/r5/timing/asHumanReadableText")) {
+            webTestClient
+                    .post()
+                    .uri(uri)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(request)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class)
+                    .value(body -> assertThat(body)
+                            .contains("event:item")
+                            .contains("event:summary"));
+        }
+    }
+
+    @Test
+    void issues_followTheirItem() {
+        var issue = ProblemDetail.forStatus(500);
+        var results = Flux.just(
+                new TranslationResult(LocalizedDto.builder().entry("en", "a").build(), List.of()),
+                new TranslationResult(LocalizedDto.builder().build(), List.of(issue, issue)),
+                new TranslationResult(LocalizedDto.builder().entry("en", "c").build(), List.of())
+        );
+
+        var events = toServerSentEvents(results).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(events)
+                .extracting(ServerSentEvent::event)
+                .containsExactly("item", "item", "issue", "issue", "item", "summary");
+        assertThat(events.get(4).id()).isEqualTo("2");
+        assertThat(events.get(5).data()).hasToString("TranslationSummaryDto(items=3, issues=2)");
+    }
+}
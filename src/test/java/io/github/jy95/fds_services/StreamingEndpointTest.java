@@ -0,0 +1,179 @@
+package io.github.jy95.fds_services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.jy95.fds.r4.DosageAPIR4;
+import io.github.jy95.fds_services.dto.StreamItemDto;
+import io.github.jy95.fds_services.enum_.BelgifProblemType;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import io.github.jy95.fds_services.utility.TranslationOptions;
+import org.hl7.fhir.r4.model.Dosage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@AutoConfigureWebTestClient(timeout = "30s")
+class StreamingEndpointTest implements DosageConversionSupport {
+
+    private static final String DOSAGE_LINE = """
+            {"timing":{"repeat":{"frequency":2,"period":1,"periodUnit":"d"}}}
+            """;
+
+    private static final String TIMING_LINE = """
+            {"repeat":{"frequency":3,"period":1,"periodUnit":"d"}}
+            """;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void dosageStream_returnsOneLinePerDosage() {
+        for (String uri : List.of("/r4/dosage/asHumanReadableText", "/r5/dosage/asHumanReadableText")) {
+            assertStreamed(uri, DOSAGE_LINE.repeat(25), 25);
+        }
+    }
+
+    @Test
+    void timingStream_returnsOneLinePerTiming() {
+        for (String uri : List.of("/r4/timing/asHumanReadableText", "/r5/timing/asHumanReadableText")) {
+            assertStreamed(uri, TIMING_LINE.repeat(25), 25);
+        }
+    }
+
+    @Test
+    void stream_keepsInputOrderAndReadsAheadOnlyALittle() {
+        var resolver = mock(DosageAPIR4.class);
+        when(resolver.asHumanReadableText(anyList())).thenAnswer(invocation -> {
+            List<Dosage> dosages = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(dosages.getFirst().getText());
+        });
+        var requested = new AtomicLong();
+        var elements = Flux
+                .range(0, 1_000_000)
+                .<JsonNode>map(i -> MAPPER.createObjectNode().put("text", String.valueOf(i)))
+                .doOnRequest(requested::addAndGet);
+
+        var options = new TranslationOptions(Schedulers.immediate(), 8, TranslationOptions.DEFAULT.globalLimiter());
+        var stream = translateDosageStream(
+                elements,
+                node -> {
+                    if (node.get("text").asText().equals("3")) {
+                        throw new IllegalArgumentException("Invalid dosage");
+                    }
+                    return List.of(List.of(new Dosage().setText(node.get("text").asText())));
+                },
+                List.of(Locale.ENGLISH),
+                Map.of(Locale.ENGLISH, resolver),
+                options
+        );
+
+        StepVerifier.create(stream, 5)
+                .expectNext(item("0"), item("1"), item("2"))
+                .assertNext(invalid -> {
+                    assertThat(invalid.getTranslations()).isEmpty();
+                    assertThat(invalid.getIssues())
+                            .singleElement()
+                            .satisfies(issue -> {
+                                assertThat(issue.getType()).hasToString(BelgifProblemType.BAD_REQUEST.getType());
+                                assertThat(issue.getDetail()).isEqualTo("Invalid dosage");
+                            });
+                })
+                .expectNext(item("4"))
+                .then(() -> assertThat(requested.get()).isLessThanOrEqualTo(5 + 8))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void stream_reportsTheLocalesThatFailed() {
+        var english = mock(DosageAPIR4.class);
+        when(english.asHumanReadableText(anyList())).thenReturn(CompletableFuture.completedFuture("2 times a day"));
+        var french = mock(DosageAPIR4.class);
+        when(french.asHumanReadableText(anyList())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broken")));
+
+        var options = new TranslationOptions(Schedulers.immediate(), 8, TranslationOptions.DEFAULT.globalLimiter());
+        var stream = translateDosageStream(
+                Flux.just((JsonNode) MAPPER.createObjectNode()),
+                node -> List.of(List.of(new Dosage())),
+                List.of(Locale.ENGLISH, Locale.FRENCH),
+                Map.of(Locale.ENGLISH, english, Locale.FRENCH, french),
+                options
+        );
+
+        StepVerifier.create(stream)
+                .assertNext(item -> {
+                    assertThat(item.getTranslations()).containsExactly(Map.entry("en", "2 times a day"));
+                    assertThat(item.getIssues())
+                            .singleElement()
+                            .satisfies(issue -> assertThat(issue.getProperties()).containsEntry("locale", "fr"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void stream_answersInvalidLinesWithAnIssue() {
+        var lines = webTestClient
+                .post()
+                .uri(builder -> builder.path("/r4/dosage/asHumanReadableText").queryParam("locales", "en").build())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(DOSAGE_LINE + "{\"sequence\":\"first\"}\n" + DOSAGE_LINE)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(JsonNode.class)
+                .getResponseBody()
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertThat(lines).hasSize(3);
+        // Lines without issues keep the shape of a localized item
+        assertThat(lines.getFirst().has("issues")).isFalse();
+        assertThat(lines.get(1).get("translations").isEmpty()).isTrue();
+        assertThat(lines.get(1).at("/issues/0/type").asText()).isEqualTo(BelgifProblemType.BAD_REQUEST.getType());
+        assertThat(lines.get(2).at("/translations/en").isTextual()).isTrue();
+    }
+
+    private void assertStreamed(String uri, String body, int lines) {
+        var items = webTestClient
+                .post()
+                .uri(builder -> builder.path(uri).queryParam("locales", "en", "fr").build())
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(StreamItemDto.class)
+                .getResponseBody()
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertThat(items).hasSize(lines);
+        assertThat(items).allSatisfy(item -> {
+            assertThat(item.getTranslations()).containsOnlyKeys("en", "fr");
+            assertThat(item.getIssues()).isNullOrEmpty();
+        });
+    }
+
+    private StreamItemDto item(String text) {
+        return StreamItemDto.builder().entry("en", text).build();
+    }
+}
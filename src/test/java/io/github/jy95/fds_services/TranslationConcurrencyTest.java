@@ -0,0 +1,142 @@
+package io.github.jy95.fds_services;
+
+import io.github.jy95.fds.r4.DosageAPIR4;
+import io.github.jy95.fds_services.utility.ConcurrencyLimiter;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import io.github.jy95.fds_services.utility.TranslationOptions;
+import org.hl7.fhir.r4.model.Dosage;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TranslationConcurrencyTest implements DosageConversionSupport {
+
+    @Test
+    void limiter_capsWorkInFlight() {
+        var limiter = new ConcurrencyLimiter(3);
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+
+        Flux.range(0, 50)
+                .flatMap(i -> limiter.limit(Mono
+                        .fromCallable(() -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                        .delayElement(Duration.ofMillis(2))
+                        .map(ignored -> inFlight.decrementAndGet())
+                ))
+                .blockLast();
+
+        assertThat(maxInFlight.get()).isEqualTo(3);
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.pending()).isZero();
+    }
+
+    @Test
+    void limiter_releasesPermitsOfCancelledWork() {
+        var limiter = new ConcurrencyLimiter(1);
+
+        // Holds the only permit, then gets cancelled
+        limiter.limit(Mono.never()).subscribe().dispose();
+        // Waits for the permit, then gets cancelled
+        var holder = limiter.limit(Mono.never()).subscribe();
+        limiter.limit(Mono.just(1)).subscribe().dispose();
+        holder.dispose();
+
+        assertThat(limiter.limit(Mono.just(1)).block(Duration.ofSeconds(1))).isEqualTo(1);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void limiter_doesNotRecurseOnSynchronousWork() {
+        var limiter = new ConcurrencyLimiter(1);
+
+        long count = Flux.range(0, 100_000)
+                .flatMap(i -> limiter.limit(Mono.just(i)), Integer.MAX_VALUE)
+                .count()
+                .block();
+
+        assertThat(count).isEqualTo(100_000);
+    }
+
+    @Test
+    void translations_keepInputOrder_underPerRequestCap() {
+        var locales = List.of(Locale.ENGLISH, Locale.FRENCH, Locale.GERMAN);
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+
+        Map<Locale, DosageAPIR4> resolvers = createResolversForLocales(locales, locale -> {
+            var resolver = mock(DosageAPIR4.class);
+            when(resolver.asHumanReadableText(anyList())).thenAnswer(invocation -> {
+                List<Dosage> dosages = invocation.getArgument(0);
+                int index = Integer.parseInt(dosages.get(0).getText());
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                // Later dosages complete first
+                return CompletableFuture.supplyAsync(
+                        () -> {
+                            inFlight.decrementAndGet();
+                            return locale.getLanguage() + "-" + index;
+                        },
+                        CompletableFuture.delayedExecutor(40 - index, TimeUnit.MILLISECONDS)
+                );
+            });
+            return resolver;
+        });
+
+        List<List<Dosage>> dosages = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            dosages.add(List.of(new Dosage().setText(String.valueOf(i))));
+        }
+
+        var options = new TranslationOptions(Schedulers.immediate(), 8, new ConcurrencyLimiter(100));
+        var response = translateDosagesWithIssues(dosages, locales, resolvers, options).block(Duration.ofSeconds(30));
+
+        assertThat(response.getIssues()).isEmpty();
+        assertThat(response.getItems()).hasSize(40);
+        for (int i = 0; i < 40; i++) {
+            assertThat(response.getItems().get(i).getTranslations())
+                    .containsEntry("en", "en-" + i)
+                    .containsEntry("fr", "fr-" + i)
+                    .containsEntry("de", "de-" + i);
+        }
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    void translations_continueOnTheTranslationScheduler() {
+        var locales = List.of(Locale.ENGLISH, Locale.FRENCH);
+        // As the library : its futures complete on the common pool
+        Map<Locale, DosageAPIR4> resolvers = createResolversForLocales(locales, locale -> {
+            var resolver = mock(DosageAPIR4.class);
+            when(resolver.asHumanReadableText(anyList()))
+                    .thenAnswer(invocation -> CompletableFuture.supplyAsync(locale::getLanguage, ForkJoinPool.commonPool()));
+            return resolver;
+        });
+        var scheduler = Schedulers.newSingle("fds-translation-test");
+
+        try {
+            var options = new TranslationOptions(scheduler, 8, ConcurrencyLimiter.unlimited());
+            String thread = translateDosagesWithIssues(List.of(List.of(new Dosage())), locales, resolvers, options)
+                    .map(response -> Thread.currentThread().getName())
+                    .block(Duration.ofSeconds(10));
+
+            assertThat(thread).startsWith("fds-translation-test");
+        } finally {
+            scheduler.dispose();
+        }
+    }
+}
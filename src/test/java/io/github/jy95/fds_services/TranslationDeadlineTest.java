@@ -0,0 +1,156 @@
+package io.github.jy95.fds_services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.jy95.fds.r4.DosageAPIR4;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.enum_.PayloadType;
+import io.github.jy95.fds_services.service.TranslationServiceR4Impl;
+import io.github.jy95.fds_services.utility.ConcurrencyLimiter;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import io.github.jy95.fds_services.utility.TranslationOptions;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.hl7.fhir.r4.model.Dosage;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ProblemDetail;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TranslationDeadlineTest implements DosageConversionSupport {
+
+    private final List<CompletableFuture<String>> pending = new CopyOnWriteArrayList<>();
+
+    @Test
+    void deadline_returnsFinishedLocalesAndReportsTheOthers() {
+        var resolvers = Map.of(
+                Locale.ENGLISH, resolver(dosages -> CompletableFuture.completedFuture("en-" + dosages.get(0).getText())),
+                Locale.FRENCH, resolver(dosages -> never())
+        );
+        var dosages = List.of(dosage("0"), dosage("1"), dosage("2"));
+
+        var response = translateDosagesWithIssues(
+                dosages,
+                List.of(Locale.ENGLISH, Locale.FRENCH),
+                resolvers,
+                TranslationOptions.DEFAULT.withTimeout(100L)
+        ).block(Duration.ofSeconds(5));
+
+        assertThat(response.getItems()).hasSize(3);
+        for (int i = 0; i < 3; i++) {
+            assertThat(response.getItems().get(i).getTranslations())
+                    .containsOnlyKeys("en")
+                    .containsEntry("en", "en-" + i);
+        }
+
+        // One issue for the locale, not one per dosage
+        assertThat(response.getIssues()).singleElement().satisfies(issue -> {
+            assertThat(issue.getType()).isEqualTo(SERVICE_UNAVAILABLE);
+            assertThat(issue.getProperties()).containsEntry("locale", "fr");
+        });
+
+        assertThat(pending).hasSize(3).allMatch(CompletableFuture::isCancelled);
+    }
+
+    @Test
+    void deadline_neverStartsQueuedTranslations() {
+        var started = new AtomicInteger();
+        var resolvers = Map.of(Locale.ENGLISH, resolver(dosages -> {
+            started.incrementAndGet();
+            return never();
+        }));
+        var dosages = List.of(dosage("0"), dosage("1"), dosage("2"), dosage("3"));
+
+        // One translation at a time
+        var options = new TranslationOptions(Schedulers.immediate(), 1, ConcurrencyLimiter.unlimited())
+                .withTimeout(100L);
+        var response = translateDosagesWithIssues(dosages, List.of(Locale.ENGLISH), resolvers, options)
+                .block(Duration.ofSeconds(5));
+
+        assertThat(response.getIssues()).hasSize(1);
+        assertThat(started.get()).isOne();
+        assertThat(pending).singleElement().matches(CompletableFuture::isCancelled);
+    }
+
+    @Test
+    void cancellation_cancelsPendingTranslations() {
+        var resolvers = Map.of(
+                Locale.ENGLISH, resolver(dosages -> never()),
+                Locale.GERMAN, resolver(dosages -> never())
+        );
+
+        // Client went away
+        translateDosagesWithIssues(
+                List.of(dosage("0"), dosage("1")),
+                List.of(Locale.ENGLISH, Locale.GERMAN),
+                resolvers
+        ).subscribe().dispose();
+
+        assertThat(pending).hasSize(4).allMatch(CompletableFuture::isCancelled);
+    }
+
+    /**
+     * The budget of a request, over the actual service
+     */
+    @Nested
+    @SpringBootTest
+    class Service {
+
+        @Autowired
+        private TranslationServiceR4Impl service;
+
+        @Test
+        void deadline_startsWhenTheRequestIsRead() throws InterruptedException {
+            var params = ParamsDto.builder().timeoutMillis(50L).useResultCache(false).build();
+            List<JsonNode> elements = List.of(MAPPER.createObjectNode().put("text", "late"));
+
+            var translation = service.translate(PayloadType.DOSAGE, elements, params);
+            var batch = service.translateBatch(PayloadType.DOSAGE, List.of(elements), Function.identity(), entry -> params);
+            // Waiting for a worker counts against the budget
+            Thread.sleep(100);
+
+            assertThat(translation.block(Duration.ofSeconds(5)))
+                    .extracting(DosageResponseDto::getIssues, InstanceOfAssertFactories.list(ProblemDetail.class))
+                    .singleElement()
+                    .extracting(ProblemDetail::getType)
+                    .isEqualTo(SERVICE_UNAVAILABLE);
+            assertThat(batch.block(Duration.ofSeconds(5)))
+                    .singleElement()
+                    .extracting(DosageResponseDto::getIssues, InstanceOfAssertFactories.list(ProblemDetail.class))
+                    .singleElement()
+                    .extracting(ProblemDetail::getType)
+                    .isEqualTo(SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private DosageAPIR4 resolver(Function<List<Dosage>, CompletableFuture<String>> answer) {
+        var resolver = mock(DosageAPIR4.class);
+        when(resolver.asHumanReadableText(anyList())).thenAnswer(invocation -> answer.apply(invocation.getArgument(0)));
+        return resolver;
+    }
+
+    private CompletableFuture<String> never() {
+        var future = new CompletableFuture<String>();
+        pending.add(future);
+        return future;
+    }
+
+    private List<Dosage> dosage(String text) {
+        return List.of(new Dosage().setText(text));
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.jy95.fds_services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jy95.fds_services.config.CacheConfig;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.dto.LocalizedDto;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import io.github.jy95.fds_services.enum_.PayloadType;
+import io.github.jy95.fds_services.generator.DosageApiKey;
+import io.github.jy95.fds_services.generator.PayloadDigest;
+import io.github.jy95.fds_services.generator.TranslationResultKey;
+import io.github.jy95.fds_services.service.CachedTranslations;
+import io.github.jy95.fds_services.service.TranslationResultCache;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TranslationResultCacheTest {
+
+    @Autowired
+    private TranslationResultCache resultCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final List<List<Locale>> calls = new ArrayList<>();
+
+    @BeforeEach
+    void clearCache() {
+        cacheManager.getCache(CacheConfig.RESULT_CACHE).clear();
+        calls.clear();
+    }
+
+    @Test
+    void translate_skipsPipelineOnHit() {
+        var params = ParamsDto.builder().locales(List.of(Locale.ENGLISH, Locale.FRENCH)).build();
+
+        var first = translate(payload("{\"text\":\"a\",\"sequence\":1}"), params);
+        // Same content, different property order
+        var second = translate(payload("{\"sequence\":1,\"text\":\"a\"}"), params);
+
+        assertThat(calls).containsExactly(List.of(Locale.ENGLISH, Locale.FRENCH));
+        assertThat(second.getItems()).isEqualTo(first.getItems());
+        assertThat(second.getItems().get(0).getTranslations())
+                .containsEntry("en", "en:2")
+                .containsEntry("fr", "fr:2");
+    }
+
+    @Test
+    void translate_onlyTranslatesMissingLocales() {
+        var payload = payload("{\"text\":\"b\"}");
+
+        translate(payload, ParamsDto.builder().locales(List.of(Locale.ENGLISH)).build());
+        var response = translate(payload, ParamsDto.builder().locales(List.of(Locale.FRENCH, Locale.ENGLISH)).build());
+
+        assertThat(calls).containsExactly(List.of(Locale.ENGLISH), List.of(Locale.FRENCH));
+        assertThat(response.getItems().get(0).getTranslations())
+                .containsExactly(
+                        Map.entry("fr", "fr:1"),
+                        Map.entry("en", "en:1")
+                );
+    }
+
+    @Test
+    void translate_canBeDisabledPerRequest() {
+        var payload = payload("{\"text\":\"c\"}");
+        var params = ParamsDto.builder().useResultCache(false).build();
+
+        translate(payload, params);
+        translate(payload, params);
+
+        assertThat(calls).hasSize(2);
+    }
+
+    @Test
+    void translate_passesRequestsWithoutLocalesThrough() {
+        var payload = payload("{\"text\":\"d\"}");
+        var params = ParamsDto.builder().locales(List.of()).build();
+
+        var response = translate(payload, params);
+
+        assertThat(calls).containsExactly(List.of());
+        assertThat(response.getItems()).singleElement().satisfies(item -> assertThat(item.getTranslations()).isEmpty());
+    }
+
+    @Test
+    void translate_expiresPromotedEntriesAgainstTheirWriteTime() {
+        var payload = payload("{\"text\":\"e\"}");
+        var params = ParamsDto.builder().locales(List.of(Locale.ENGLISH)).build();
+        var key = new TranslationResultKey(
+                FhirVersion.R4,
+                PayloadType.DOSAGE,
+                PayloadDigest.sha256(payload),
+                DosageApiKey.of(Locale.ENGLISH, params),
+                params.getOutputFormat()
+        );
+        // As promoted from the off-heap tier : translated longer ago than the 12h lifetime
+        long writtenAt = System.nanoTime() - Duration.ofHours(13).toNanos();
+        cacheManager.getCache(CacheConfig.RESULT_CACHE).put(key, new CachedTranslations(List.of("stale"), writtenAt));
+
+        var response = translate(payload, params);
+
+        assertThat(calls).containsExactly(List.of(Locale.ENGLISH));
+        assertThat(response.getItems().get(0).getTranslations()).containsEntry("en", "en:1");
+    }
+
+    private DosageResponseDto translate(List<JsonNode> payload, ParamsDto params) {
+        return resultCache
+                .translate(FhirVersion.R4, PayloadType.DOSAGE, PayloadDigest.sha256(payload), params, translator(payload))
+                .block();
+    }
+
+    // Fake pipeline : "<language>:<number of properties>" per dosage
+    private Function<List<Locale>, Mono<DosageResponseDto>> translator(List<JsonNode> payload) {
+        return locales -> {
+            calls.add(locales);
+            var items = payload
+                    .stream()
+                    .map(node -> {
+                        var builder = LocalizedDto.builder();
+                        locales.forEach(locale -> builder.entry(locale.getLanguage(), locale.getLanguage() + ":" + node.size()));
+                        return builder.build();
+                    })
+                    .toList();
+            return Mono.just(DosageResponseDto.builder().items(items).build());
+        };
+    }
+
+    @SneakyThrows
+    private List<JsonNode> payload(String json) {
+        return List.of(mapper.readTree(json));
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.jy95.fds_services;
+
+import io.github.jy95.fds.r4.DosageAPIR4;
+import io.github.jy95.fds_services.service.FhirParserProvider;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import io.github.jy95.fds_services.utility.TranslationOptions;
+import org.hl7.fhir.r4.model.Dosage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "fds.execution.mode=VIRTUAL_THREADS")
+@AutoConfigureWebTestClient
+class VirtualThreadModeTest implements DosageConversionSupport {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TranslationOptions translationOptions;
+
+    @MockitoSpyBean
+    private FhirParserProvider parsers;
+
+    @Test
+    void pipeline_runsOnVirtualThreads() {
+        Queue<Thread> threads = new ConcurrentLinkedQueue<>();
+        doAnswer(invocation -> {
+            threads.add(Thread.currentThread());
+            return invocation.callRealMethod();
+        }).when(parsers).withJsonParser(any(), any());
+
+        webTestClient
+                .mutate()
+                .responseTimeout(Duration.ofSeconds(30))
+                .build()
+                .post()
+                .uri("/r4/dosage/asHumanReadableText")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"dosages": [{"text": "Free text posology"}], "params": {"useResultCache": false}}
+                        """)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.issues.length()").isEqualTo(0);
+
+        assertThat(threads).isNotEmpty();
+        assertThat(threads).allMatch(Thread::isVirtual);
+    }
+
+    @Test
+    void translations_continueOnVirtualThreads() {
+        // As the library : its futures complete on the common pool
+        var resolver = mock(DosageAPIR4.class);
+        when(resolver.asHumanReadableText(anyList()))
+                .thenAnswer(invocation -> CompletableFuture.supplyAsync(() -> "text", ForkJoinPool.commonPool()));
+
+        Thread thread = translateDosagesWithIssues(
+                List.of(List.of(new Dosage())),
+                List.of(Locale.ENGLISH),
+                Map.of(Locale.ENGLISH, resolver),
+                translationOptions
+        )
+                .map(response -> Thread.currentThread())
+                .block(Duration.ofSeconds(10));
+
+        assertThat(thread.isVirtual()).isTrue();
+    }
+}
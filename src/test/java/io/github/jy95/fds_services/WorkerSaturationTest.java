@@ -0,0 +1,68 @@
+package io.github.jy95.fds_services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * One worker, one queue slot : both taken, so that the next request is rejected by the worker pool.
+ */
+@SpringBootTest(properties = {
+        "fds.warmup.enabled=false",
+        "fds.worker.pool-size=1",
+        "fds.worker.queue-capacity=1"
+})
+@AutoConfigureWebTestClient
+class WorkerSaturationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ExecutorService workerExecutor;
+
+    @Test
+    void fullWorkerQueue_answersTooManyRequests() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        try {
+            // One running, one waiting
+            workerExecutor.execute(() -> {
+                started.countDown();
+                awaitQuietly(release);
+            });
+            started.await();
+            workerExecutor.execute(() -> awaitQuietly(release));
+
+            webTestClient
+                    .post()
+                    .uri("/r4/dosage/asHumanReadableText")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue("""
+                            {"dosages": [{"text": "Free text posology"}]}
+                            """)
+                    .exchange()
+                    .expectStatus().isEqualTo(429)
+                    .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                    .expectBody()
+                    .jsonPath("$.type").isEqualTo("urn:problem-type:belgif:tooManyRequests");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
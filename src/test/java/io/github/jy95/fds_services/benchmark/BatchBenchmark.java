@@ -0,0 +1,127 @@
+package io.github.jy95.fds_services.benchmark;
+
+import io.github.jy95.fds_services.Application;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * N small independent requests (a few distinct params, some repeated payloads), sent either as
+ * N sequential calls or as a single batch call.
+ * The result cache is bypassed, so that the difference only comes from round-trips, resolver lookups and deduplication.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class BatchBenchmark {
+
+    private static final List<String> SEPARATORS = List.of(" ", " - ", " | ");
+
+    @Param({"10", "50"})
+    public int entries;
+
+    private ConfigurableApplicationContext application;
+    private HttpClient client;
+    private List<String> requests;
+    private String batch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        application = new SpringApplicationBuilder(Application.class)
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN",
+                        "fds.warmup.enabled=false",
+                        "fds.grpc.port=-1"
+                )
+                .run();
+        int port = application.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+        client = HttpClient
+                .create()
+                .baseUrl("http://localhost:" + port)
+                .headers(headers -> headers.add(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON));
+
+        // One payload out of four is repeated
+        requests = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            int payload = i % 4 == 3 ? i - 1 : i;
+            requests.add("""
+                    {
+                      "dosages": [{"text": "Dosage %d", "timing": {"repeat": {"frequency": %d, "period": 1, "periodUnit": "d"}}}],
+                      "params": {"locales": ["en", "fr"], "displaySeparator": "%s", "useResultCache": false}
+                    }
+                    """.formatted(payload, payload % 5 + 1, SEPARATORS.get(payload % SEPARATORS.size())));
+        }
+        batch = requests.stream().collect(Collectors.joining(",", "{\"entries\": [", "]}"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public int sequentialCalls() {
+        int length = 0;
+        for (String request : requests) {
+            length += post("/r4/dosage/asHumanReadableText", request);
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int batchCall() {
+        return post("/r4/dosage/asHumanReadableText/batch", batch);
+    }
+
+    private int post(String uri, String body) {
+        return client
+                .post()
+                .uri(uri)
+                .send(ByteBufFlux.fromString(Mono.just(body)))
+                .responseSingle((response, content) -> {
+                    if (response.status().code() != 200) {
+                        return Mono.error(new IllegalStateException("Status " + response.status().code()));
+                    }
+                    return content.asString().map(String::length);
+                })
+                .block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(BatchBenchmark.class.getSimpleName())
+                        .build()
+        ).run();
+    }
+}
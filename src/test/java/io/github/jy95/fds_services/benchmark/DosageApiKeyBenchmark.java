@@ -0,0 +1,96 @@
+package io.github.jy95.fds_services.benchmark;
+
+import io.github.jy95.fds.common.types.DisplayOrder;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.generator.DosageApiKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the former String-joined resolver key with {@link DosageApiKey}, for a cache lookup.
+ * Run with the GC profiler to see allocations per lookup (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DosageApiKeyBenchmark {
+
+    /**
+     * Default params use the (immutable) library display orders, custom ones come from Jackson (ArrayList).
+     */
+    @Param({"default", "custom"})
+    public String displayOrders;
+
+    private ParamsDto params;
+    private final Map<Object, Object> stringKeyedCache = new HashMap<>();
+    private final Map<Object, Object> structuredKeyedCache = new HashMap<>();
+
+    @Setup
+    public void setup() {
+        params = ParamsDto.builder().build();
+        if ("custom".equals(displayOrders)) {
+            params.setDisplayOrders(new ArrayList<>(List.of(DisplayOrder.TEXT, DisplayOrder.BOUNDS_DURATION)));
+        }
+        stringKeyedCache.put(legacyKey(Locale.ENGLISH, params), Boolean.TRUE);
+        structuredKeyedCache.put(DosageApiKey.of(Locale.ENGLISH, params), Boolean.TRUE);
+    }
+
+    @Benchmark
+    public Object legacyStringKey() {
+        return stringKeyedCache.get(legacyKey(Locale.ENGLISH, params));
+    }
+
+    @Benchmark
+    public Object structuredKey() {
+        return structuredKeyedCache.get(DosageApiKey.of(Locale.ENGLISH, params));
+    }
+
+    // Former DosageApiKeyGenerator implementation
+    private static String legacyKey(Locale locale, ParamsDto dto) {
+        var order = dto
+                .getDisplayOrders()
+                .stream()
+                .map(Enum::toString)
+                .collect(Collectors.joining("_"));
+
+        return String.join(
+                "::",
+                locale.toLanguageTag(),
+                dto.getDisplaySeparator(),
+                order
+        );
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(DosageApiKeyBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build()
+        ).run();
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.jy95.fds_services.benchmark;
+
+import io.github.jy95.fds.r4.DosageAPIR4;
+import io.github.jy95.fds.r4.config.FDSConfigR4;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.utility.ConcurrencyLimiter;
+import io.github.jy95.fds_services.utility.DeduplicationStats;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import io.github.jy95.fds_services.utility.DosageGroupKey;
+import io.github.jy95.fds_services.utility.TranslationOptions;
+import org.hl7.fhir.r4.model.Dosage;
+import org.hl7.fhir.r4.model.Duration;
+import org.hl7.fhir.r4.model.Timing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A DETAILED request of 500 dosages x 3 locales, whose dosages are drawn from a pool of distinct ones
+ * with more or less skew. "unique" has no duplicate at all : it measures the cost of the deduplication itself.
+ * "off" translates every group (no deduplication), as a baseline for each distribution.
+ * {@code groupKeys} isolates the extra work of the deduplication : hashing and comparing the 500 groups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DosageDeduplicationBenchmark implements DosageConversionSupport {
+
+    private static final int GROUPS = 500;
+    private static final List<Locale> LOCALES = List.of(Locale.ENGLISH, Locale.FRENCH, Locale.GERMAN);
+
+    /**
+     * "unique" : all distinct, "uniform" : 50 distinct equally likely,
+     * "zipf" : 500 distinct with Zipf (s = 1) popularity, "hot" : 90% of the dosages among 5 distinct.
+     */
+    @Param({"unique", "uniform", "zipf", "hot"})
+    public String distribution;
+
+    @Param({"on", "off"})
+    public String deduplication;
+
+    private Scheduler scheduler;
+    private TranslationOptions options;
+    private Map<Locale, DosageAPIR4> resolvers;
+    private List<List<Dosage>> request;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        scheduler = Schedulers.newParallel("benchmark-translation", 4);
+        options = new TranslationOptions(
+                scheduler,
+                64,
+                ConcurrencyLimiter.unlimited(),
+                null,
+                deduplication.equals("on") ? new DeduplicationStats() : null
+        );
+        resolvers = createResolversForLocales(
+                LOCALES,
+                locale -> new DosageAPIR4(FDSConfigR4.builder().locale(locale).build())
+        );
+
+        var random = new Random(42);
+        double[] zipf = zipfCumulative(GROUPS);
+        request = new ArrayList<>(GROUPS);
+        for (int i = 0; i < GROUPS; i++) {
+            int variant = switch (distribution) {
+                case "uniform" -> random.nextInt(50);
+                case "zipf" -> sample(zipf, random.nextDouble());
+                case "hot" -> random.nextDouble() < 0.9 ? random.nextInt(5) : 5 + random.nextInt(GROUPS);
+                default -> i;
+            };
+            // Distinct instances, as if each one had been parsed from its own JSON object
+            request.add(List.of(dosage(variant)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public DosageResponseDto translate() {
+        return translateDosagesWithIssues(request, LOCALES, resolvers, options).block();
+    }
+
+    @Benchmark
+    public int groupKeys() {
+        Set<DosageGroupKey> distinct = new HashSet<>();
+        for (List<Dosage> group : request) {
+            distinct.add(DosageGroupKey.of(group));
+        }
+        return distinct.size();
+    }
+
+    private static Dosage dosage(int variant) {
+        var repeat = new Timing.TimingRepeatComponent()
+                .setFrequency(variant % 6 + 1)
+                .setPeriod(1)
+                .setPeriodUnit(Timing.UnitsOfTime.D)
+                .setBounds(new Duration().setValue(variant / 6 + 1).setCode("d"));
+        return new Dosage().setTiming(new Timing().setRepeat(repeat));
+    }
+
+    private static double[] zipfCumulative(int size) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, double value) {
+        int index = Arrays.binarySearch(cumulative, value);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(DosageDeduplicationBenchmark.class.getSimpleName())
+                        .build()
+        ).run();
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.jy95.fds_services.benchmark;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jy95.fds_services.enum_.OutputFormat;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import org.hl7.fhir.r4.model.Dosage;
+import org.hl7.fhir.r4.model.MedicationRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former JSON String round-trip with the direct tree binding of validateAndExtractDosages,
+ * per number of dosages. Run with the GC profiler to see allocations per request (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DosageParsingBenchmark implements DosageConversionSupport {
+
+    private static final String DOSAGE = """
+            {
+              "text": "Free text posology",
+              "timing": {
+                "repeat": {
+                  "frequency": 2,
+                  "period": 1,
+                  "periodUnit": "d",
+                  "when": ["AC"],
+                  "offset": 30,
+                  "boundsDuration": {"value": 10, "code": "d", "system": "http://unitsofmeasure.org"}
+                }
+              },
+              "doseAndRate": [{"doseQuantity": {"value": 500, "unit": "mg"}}]
+            }
+            """;
+
+    @Param({"1", "10", "100", "500"})
+    public int dosageCount;
+
+    private final IParser parser = FhirContext.forR4().newJsonParser();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private List<JsonNode> dosages;
+
+    @Setup
+    public void setup() throws Exception {
+        dosages = new ArrayList<>(dosageCount);
+        for (int i = 0; i < dosageCount; i++) {
+            dosages.add(mapper.readTree(DOSAGE));
+        }
+    }
+
+    @Benchmark
+    public List<Dosage> stringRoundTrip() throws Exception {
+        var workingObj = mapper.createObjectNode();
+        workingObj.set("dosageInstruction", mapper.createArrayNode().addAll(dosages));
+        workingObj.put("resourceType", "MedicationRequest");
+
+        String json = mapper.writeValueAsString(workingObj);
+        return parser.parseResource(MedicationRequest.class, json).getDosageInstruction();
+    }
+
+    @Benchmark
+    public List<List<Dosage>> treeBinding() {
+        return validateAndExtractDosages(
+                dosages,
+                parser,
+                MedicationRequest.class,
+                r -> ((MedicationRequest) r).getDosageInstruction(),
+                OutputFormat.SUMMARY
+        );
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(DosageParsingBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build()
+        ).run();
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.jy95.fds_services.benchmark;
+
+import io.github.jy95.fds_services.Application;
+import io.github.jy95.fds_services.enum_.ExecutionMode;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Starts the application in each execution mode, then sends as many concurrent requests
+ * as there are connections (each one on its own connection) and measures the time until all of them completed.
+ * The worker queue is sized to the number of connections, and admission control is off,
+ * so that neither mode rejects any of them.
+ * <p>
+ * Client and server share the host : each connection costs two file descriptors. Larger bursts
+ * ({@code -p connections=10000,50000}) need a host with a high enough {@code ulimit -n},
+ * ideally with the load generated from another machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExecutionModeBenchmark {
+
+    private static final int VARIANTS = 100;
+
+    @Param({"REACTIVE", "VIRTUAL_THREADS"})
+    public ExecutionMode mode;
+
+    @Param({"1000"})
+    public int connections;
+
+    private ConfigurableApplicationContext application;
+    private ConnectionProvider connectionProvider;
+    private HttpClient client;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // As arguments : default properties would lose to application.properties
+        application = new SpringApplicationBuilder(Application.class)
+                .run(
+                        "--server.port=0",
+                        "--logging.level.root=WARN",
+                        "--fds.warmup.enabled=false",
+                        "--fds.grpc.port=-1",
+                        "--fds.execution.mode=" + mode,
+                        "--fds.admission.enabled=false",
+                        "--fds.worker.queue-capacity=" + connections
+                );
+        int port = application.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+        connectionProvider = ConnectionProvider
+                .builder("benchmark")
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        client = HttpClient
+                .create(connectionProvider)
+                .baseUrl("http://localhost:" + port)
+                .headers(headers -> headers.add(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionProvider.dispose();
+        application.close();
+    }
+
+    @Benchmark
+    public long concurrentRequests() {
+        Map<Integer, Long> statuses = Flux
+                .range(0, connections)
+                .flatMap(this::post, connections)
+                .collect(Collectors.groupingBy(Function.identity(), TreeMap::new, Collectors.counting()))
+                .block();
+
+        long succeeded = statuses.getOrDefault(200, 0L);
+        if (succeeded != connections) {
+            throw new IllegalStateException((connections - succeeded) + " request(s) failed, statuses : " + statuses);
+        }
+        return succeeded;
+    }
+
+    // Result cache bypassed, so that every request goes through the whole pipeline
+    private Mono<Integer> post(int i) {
+        String body = """
+                {
+                  "dosages": [{"text": "Dosage %d", "timing": {"repeat": {"frequency": %d, "period": 1, "periodUnit": "d"}}}],
+                  "params": {"locales": ["en", "fr"], "useResultCache": false}
+                }
+                """.formatted(i % VARIANTS, i % 5 + 1);
+
+        return client
+                .post()
+                .uri("/r4/dosage/asHumanReadableText")
+                .send(ByteBufFlux.fromString(Mono.just(body)))
+                .responseSingle((response, content) -> content.then(Mono.just(response.status().code())));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(ExecutionModeBenchmark.class.getSimpleName())
+                        .build()
+        ).run();
+    }
+}
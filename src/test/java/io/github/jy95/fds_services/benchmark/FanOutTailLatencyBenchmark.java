@@ -0,0 +1,133 @@
+package io.github.jy95.fds_services.benchmark;
+
+import io.github.jy95.fds.r4.DosageAPIR4;
+import io.github.jy95.fds.r4.config.FDSConfigR4;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.utility.ConcurrencyLimiter;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import io.github.jy95.fds_services.utility.TranslationOptions;
+import org.hl7.fhir.r4.model.Dosage;
+import org.hl7.fhir.r4.model.Duration;
+import org.hl7.fhir.r4.model.Timing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of small requests (1 dosage, 2 locales) while a giant DETAILED request (500 dosages x 7 locales)
+ * is translated over and over in the background, with and without concurrency caps.
+ * Look at the p0.99 / p0.999 rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class FanOutTailLatencyBenchmark implements DosageConversionSupport {
+
+    private static final List<Locale> ALL_LOCALES = List.of(
+            Locale.ENGLISH,
+            Locale.FRENCH,
+            Locale.GERMAN,
+            Locale.forLanguageTag("nl"),
+            Locale.ITALIAN,
+            Locale.forLanguageTag("es"),
+            Locale.forLanguageTag("pt")
+    );
+    private static final List<Locale> SMALL_LOCALES = List.of(Locale.ENGLISH, Locale.FRENCH);
+
+    /**
+     * "unbounded" : former behaviour, "capped" : default caps (64 per request, 512 overall).
+     */
+    @Param({"unbounded", "capped"})
+    public String limits;
+
+    private Scheduler scheduler;
+    private TranslationOptions options;
+    private Map<Locale, DosageAPIR4> resolvers;
+    private List<List<Dosage>> giantRequest;
+    private List<List<Dosage>> smallRequest;
+    private Thread background;
+    private volatile boolean running;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        scheduler = Schedulers.newParallel("benchmark-translation", 4);
+        options = switch (limits) {
+            case "capped" -> new TranslationOptions(scheduler, 64, new ConcurrencyLimiter(512));
+            default -> new TranslationOptions(scheduler, Integer.MAX_VALUE, ConcurrencyLimiter.unlimited());
+        };
+        resolvers = createResolversForLocales(
+                ALL_LOCALES,
+                locale -> new DosageAPIR4(FDSConfigR4.builder().locale(locale).build())
+        );
+
+        giantRequest = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            giantRequest.add(List.of(dosage(i % 6 + 1)));
+        }
+        smallRequest = List.of(List.of(dosage(2)));
+
+        running = true;
+        background = new Thread(() -> {
+            while (running) {
+                translateDosagesWithIssues(giantRequest, ALL_LOCALES, resolvers, options).block();
+            }
+        }, "giant-request");
+        background.setDaemon(true);
+        background.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        background.join();
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public DosageResponseDto neighbourRequest() {
+        return translateDosagesWithIssues(smallRequest, SMALL_LOCALES, resolvers, options).block();
+    }
+
+    private static Dosage dosage(int frequency) {
+        var repeat = new Timing.TimingRepeatComponent()
+                .setFrequency(frequency)
+                .setPeriod(1)
+                .setPeriodUnit(Timing.UnitsOfTime.D)
+                .setBounds(new Duration().setValue(10).setCode("d"));
+        return new Dosage().setTiming(new Timing().setRepeat(repeat));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(FanOutTailLatencyBenchmark.class.getSimpleName())
+                        .build()
+        ).run();
+    }
+}
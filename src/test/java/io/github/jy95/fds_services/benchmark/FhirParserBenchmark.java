@@ -0,0 +1,106 @@
+package io.github.jy95.fds_services.benchmark;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jy95.fds_services.config.FhirParserProperties;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import io.github.jy95.fds_services.enum_.OutputFormat;
+import io.github.jy95.fds_services.service.FhirParserProvider;
+import io.github.jy95.fds_services.service.FhirParserProviderImpl;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import org.hl7.fhir.r4.model.Dosage;
+import org.hl7.fhir.r4.model.MedicationRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of dosage parsing from concurrent threads, with a single shared parser (former behaviour)
+ * or with parsers borrowed from {@link FhirParserProviderImpl}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class FhirParserBenchmark implements DosageConversionSupport {
+
+    private static final String DOSAGE = """
+            {
+              "text": "Free text posology",
+              "timing": {"repeat": {"frequency": 2, "period": 1, "periodUnit": "d", "when": ["AC"], "offset": 30}},
+              "doseAndRate": [{"doseQuantity": {"value": 500, "unit": "mg"}}]
+            }
+            """;
+
+    private final IParser sharedParser = FhirContext.forR4Cached().newJsonParser();
+    private final FhirParserProvider parsers = new FhirParserProviderImpl(
+            new FhirParserProperties(),
+            provider(FhirContext.forR4Cached()),
+            provider(FhirContext.forR5Cached())
+    );
+    private List<JsonNode> dosages;
+
+    @Setup
+    public void setup() throws Exception {
+        var mapper = new ObjectMapper();
+        dosages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            dosages.add(mapper.readTree(DOSAGE));
+        }
+    }
+
+    @Benchmark
+    public List<List<Dosage>> sharedParser() {
+        return parse(sharedParser);
+    }
+
+    @Benchmark
+    public List<List<Dosage>> pooledParser() {
+        return parsers.withJsonParser(FhirVersion.R4, this::parse);
+    }
+
+    private List<List<Dosage>> parse(IParser parser) {
+        return validateAndExtractDosages(
+                dosages,
+                parser,
+                MedicationRequest.class,
+                r -> ((MedicationRequest) r).getDosageInstruction(),
+                OutputFormat.DETAILED
+        );
+    }
+
+    private static ObjectProvider<FhirContext> provider(FhirContext context) {
+        return new StaticListableBeanFactory(Map.of("fhirContext", context)).getBeanProvider(FhirContext.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(FhirParserBenchmark.class.getSimpleName())
+                        .build()
+        ).run();
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.jy95.fds_services.benchmark;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.github.jy95.fds_services.dto.ParamsDto;
+import io.github.jy95.fds_services.enum_.FhirVersion;
+import io.github.jy95.fds_services.enum_.OutputFormat;
+import io.github.jy95.fds_services.enum_.PayloadType;
+import io.github.jy95.fds_services.generator.DosageApiKey;
+import io.github.jy95.fds_services.generator.TranslationResultKey;
+import io.github.jy95.fds_services.service.CachedTranslations;
+import io.github.jy95.fds_services.service.OffHeapTranslationStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Working set larger than the on-heap result cache, with and without the off-heap tier.
+ * The GC profiler reports GC counts / time, the heap occupancy after a full GC is printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g"})
+@Threads(4)
+public class OffHeapTierBenchmark {
+
+    private static final int WORKING_SET = 200_000;
+
+    @Param({"0", "256"})
+    public long offHeapMegabytes;
+
+    private TranslationResultKey[] keys;
+    private Cache<TranslationResultKey, CachedTranslations> onHeap;
+    private OffHeapTranslationStore offHeap;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        var resolverKey = DosageApiKey.of(Locale.FRENCH, ParamsDto.builder().build());
+        keys = new TranslationResultKey[WORKING_SET];
+        for (int i = 0; i < WORKING_SET; i++) {
+            keys[i] = new TranslationResultKey(FhirVersion.R4, PayloadType.DOSAGE, "digest-" + i, resolverKey, OutputFormat.DETAILED);
+        }
+
+        offHeap = new OffHeapTranslationStore(offHeapMegabytes * 1024 * 1024, Duration.ofHours(1));
+        onHeap = Caffeine
+                .newBuilder()
+                .maximumWeight(16L * 1024 * 1024)
+                .<TranslationResultKey, CachedTranslations>weigher(
+                        (key, value) -> 256 + 48 + 2 * value.translations().get(0).length()
+                )
+                .evictionListener((key, value, cause) -> {
+                    if (cause == RemovalCause.SIZE && value != null) {
+                        offHeap.put(key, value);
+                    }
+                })
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void reportHeap() {
+        System.gc();
+        var heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        System.out.printf("%nHeap used after GC (off-heap tier %d MB) : %d MB%n", offHeapMegabytes, heap.getUsed() / (1024 * 1024));
+    }
+
+    @Benchmark
+    public List<String> lookup() {
+        var key = keys[ThreadLocalRandom.current().nextInt(WORKING_SET)];
+
+        CachedTranslations translations = onHeap.getIfPresent(key);
+        if (translations == null) {
+            translations = offHeap.get(key);
+            if (translations == null) {
+                translations = CachedTranslations.of(translate(key));
+            }
+            onHeap.put(key, translations);
+        }
+        return translations.translations();
+    }
+
+    // Stands for a translation : about 300 characters of text per entry
+    private static List<String> translate(TranslationResultKey key) {
+        return List.of((key.digest() + " - 2 fois par jour - 30 minutes avant le repas - pendant 10 jours ").repeat(4));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(OffHeapTierBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build()
+        ).run();
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.jy95.fds_services.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jy95.fds_services.codec.DosageResponseEncoder;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.dto.LocalizedDto;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of a large DETAILED response (500 items x 7 locales) into pooled Netty buffers,
+ * by the generic Jackson encoder ("jackson", former behaviour) or by {@link DosageResponseEncoder} ("streaming").
+ * Scores are per item : run with {@code -prof gc} and look at {@code gc.alloc.rate.norm} for the allocations.
+ * <p>
+ * Only the encoding is measured : the response is built once, up front. What a request allocates before
+ * (parsing, translation, the {@link LocalizedDto} and map of every item) is the same with both encoders,
+ * so the gain per item is a gain on encoding, not on the whole request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    private static final int ITEMS = 500;
+    private static final List<String> LANGUAGES = List.of("en", "fr", "de", "nl", "it", "es", "pt");
+    private static final ResolvableType TYPE = ResolvableType.forClass(DosageResponseDto.class);
+
+    @Param({"jackson", "streaming"})
+    public String encoder;
+
+    private Encoder<DosageResponseDto> dosageEncoder;
+    private Jackson2JsonEncoder jacksonEncoder;
+    private NettyDataBufferFactory bufferFactory;
+    private DosageResponseDto response;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        dosageEncoder = new DosageResponseEncoder(objectMapper);
+        jacksonEncoder = new Jackson2JsonEncoder(objectMapper);
+        bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+        List<LocalizedDto> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            var item = LocalizedDto.builder();
+            for (String language : LANGUAGES) {
+                item.entry(language, "[" + language + "] " + (i % 6 + 1) + " times every day - 30 minutes before meal - for " + i + " days");
+            }
+            items.add(item.build());
+        }
+        response = DosageResponseDto.builder().items(items).build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public int encode() {
+        DataBuffer buffer = switch (encoder) {
+            case "streaming" -> dosageEncoder.encodeValue(response, bufferFactory, TYPE, MediaType.APPLICATION_JSON, Map.of());
+            default -> jacksonEncoder.encodeValue(response, bufferFactory, TYPE, MediaType.APPLICATION_JSON, Map.of());
+        };
+        int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(ResponseEncodingBenchmark.class.getSimpleName())
+                        .addProfiler("gc")
+                        .build()
+        ).run();
+    }
+}
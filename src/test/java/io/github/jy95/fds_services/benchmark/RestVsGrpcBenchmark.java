@@ -0,0 +1,131 @@
+package io.github.jy95.fds_services.benchmark;
+
+import io.github.jy95.fds_services.Application;
+import io.github.jy95.fds_services.grpc.GrpcServerLifecycle;
+import io.github.jy95.fds_services.grpc.proto.FhirVersion;
+import io.github.jy95.fds_services.grpc.proto.Params;
+import io.github.jy95.fds_services.grpc.proto.PayloadType;
+import io.github.jy95.fds_services.grpc.proto.TranslateRequest;
+import io.github.jy95.fds_services.grpc.proto.TranslationServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The same dosage translation sent by 8 concurrent callers, as JSON over HTTP/1.1 or as protobuf over gRPC (HTTP/2).
+ * Translations come from the result cache, so that the difference mostly comes from serialization and transport.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Threads(8)
+public class RestVsGrpcBenchmark {
+
+    private static final String DOSAGE = """
+            {"text": "Dosage", "timing": {"repeat": {"frequency": 2, "period": 1, "periodUnit": "d"}}}""";
+
+    @Param({"1", "20"})
+    public int dosages;
+
+    private ConfigurableApplicationContext application;
+    private HttpClient client;
+    private ManagedChannel channel;
+    private TranslationServiceGrpc.TranslationServiceBlockingStub stub;
+    private String restRequest;
+    private TranslateRequest grpcRequest;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        application = new SpringApplicationBuilder(Application.class)
+                .properties(
+                        "server.port=0",
+                        "logging.level.root=WARN",
+                        "fds.warmup.enabled=false",
+                        "fds.grpc.port=0"
+                )
+                .run();
+        int port = application.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        var grpcAddress = application.getBean(GrpcServerLifecycle.class).getListenAddress();
+
+        client = HttpClient
+                .create()
+                .baseUrl("http://localhost:" + port)
+                .headers(headers -> headers.add(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON));
+        channel = NettyChannelBuilder.forAddress(grpcAddress).usePlaintext().build();
+        stub = TranslationServiceGrpc.newBlockingStub(channel);
+
+        restRequest = """
+                {"dosages": %s, "params": {"locales": ["en", "fr"]}}
+                """.formatted(Collections.nCopies(dosages, DOSAGE).stream().collect(Collectors.joining(",", "[", "]")));
+        grpcRequest = TranslateRequest.newBuilder()
+                .setFhirVersion(FhirVersion.R4)
+                .setPayloadType(PayloadType.DOSAGE)
+                .addAllElements(Collections.nCopies(dosages, DOSAGE))
+                .setParams(Params.newBuilder().addLocales("en").addLocales("fr"))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        application.close();
+    }
+
+    @Benchmark
+    public int rest() {
+        return client
+                .post()
+                .uri("/r4/dosage/asHumanReadableText")
+                .send(ByteBufFlux.fromString(Mono.just(restRequest)))
+                .responseSingle((response, content) -> {
+                    if (response.status().code() != 200) {
+                        return Mono.error(new IllegalStateException("Status " + response.status().code()));
+                    }
+                    return content.asString().map(String::length);
+                })
+                .block();
+    }
+
+    @Benchmark
+    public int grpc() {
+        return stub.translate(grpcRequest).getItemsCount();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(RestVsGrpcBenchmark.class.getSimpleName())
+                        .build()
+        ).run();
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.jy95.fds_services.benchmark;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.jy95.fds_services.enum_.OutputFormat;
+import io.github.jy95.fds_services.utility.TimingConversionSupport;
+import org.hl7.fhir.r4.model.Dosage;
+import org.hl7.fhir.r4.model.MedicationRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former one-parse-per-timing approach with the single batched parse of validateAndExtractTiming,
+ * per number of timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimingParsingBenchmark implements TimingConversionSupport {
+
+    private static final String TIMING = """
+            {
+              "repeat": {
+                "frequency": 3,
+                "period": 1,
+                "periodUnit": "d",
+                "when": ["MORN", "EVE"],
+                "boundsDuration": {"value": 7, "code": "d", "system": "http://unitsofmeasure.org"}
+              }
+            }
+            """;
+
+    @Param({"1", "10", "50", "200"})
+    public int timingCount;
+
+    private final IParser parser = FhirContext.forR4().newJsonParser();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private List<JsonNode> timings;
+
+    @Setup
+    public void setup() throws Exception {
+        timings = new ArrayList<>(timingCount);
+        for (int i = 0; i < timingCount; i++) {
+            timings.add(mapper.readTree(TIMING));
+        }
+    }
+
+    @Benchmark
+    public List<List<Dosage>> parsePerTiming() throws Exception {
+        List<List<Dosage>> result = new ArrayList<>(timings.size());
+        for (JsonNode timing : timings) {
+            ObjectNode medReqNode = mapper.createObjectNode();
+            medReqNode.put("resourceType", "MedicationRequest");
+            medReqNode.set("dosageInstruction", mapper.createArrayNode().add(mapper.createObjectNode().set("timing", timing)));
+
+            String json = mapper.writeValueAsString(medReqNode);
+            result.add(parser.parseResource(MedicationRequest.class, json).getDosageInstruction());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<List<Dosage>> batchedParse() {
+        return validateAndExtractTiming(
+                timings,
+                parser,
+                MedicationRequest.class,
+                r -> ((MedicationRequest) r).getDosageInstruction(),
+                OutputFormat.DETAILED
+        );
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(TimingParsingBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build()
+        ).run();
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.jy95.fds_services.benchmark;
+
+import io.github.jy95.fds.r4.DosageAPIR4;
+import io.github.jy95.fds.r4.config.FDSConfigR4;
+import io.github.jy95.fds_services.config.ExecutionProperties;
+import io.github.jy95.fds_services.config.TranslationExecutorConfig;
+import io.github.jy95.fds_services.config.TranslationExecutorProperties;
+import io.github.jy95.fds_services.dto.DosageResponseDto;
+import io.github.jy95.fds_services.enum_.TranslationExecutorMode;
+import io.github.jy95.fds_services.utility.ConcurrencyLimiter;
+import io.github.jy95.fds_services.utility.DosageConversionSupport;
+import io.github.jy95.fds_services.utility.TranslationOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hl7.fhir.r4.model.Dosage;
+import org.hl7.fhir.r4.model.Duration;
+import org.hl7.fhir.r4.model.Timing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the translation executor modes: 32 threads each translating a request of 5 dosages in 4 languages.
+ * Throughput mode gives requests per second, sample mode gives the latency percentiles (p0.99).
+ * <p>
+ * Resolvers are the library's own {@link DosageAPIR4} : run it against the real library, a stand-in that answers
+ * synchronously only measures the cost of the hand-offs. The library's internal stages use the common pool in
+ * every mode, so {@code -Djava.util.concurrent.ForkJoinPool.common.parallelism} matters as much as the mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class TranslationExecutorBenchmark implements DosageConversionSupport {
+
+    private static final List<Locale> LOCALES = List.of(
+            Locale.ENGLISH,
+            Locale.FRENCH,
+            Locale.GERMAN,
+            Locale.forLanguageTag("nl")
+    );
+
+    @Param({"FIXED", "VIRTUAL", "CALLER_RUNS"})
+    public TranslationExecutorMode mode;
+
+    private Scheduler scheduler;
+    private TranslationOptions options;
+    private Map<Locale, DosageAPIR4> resolvers;
+    private List<List<Dosage>> dosages;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var properties = new TranslationExecutorProperties();
+        properties.setMode(mode);
+        scheduler = new TranslationExecutorConfig().translationScheduler(
+                properties,
+                new ExecutionProperties(),
+                new SimpleMeterRegistry()
+        );
+        options = new TranslationOptions(scheduler, Integer.MAX_VALUE, ConcurrencyLimiter.unlimited());
+
+        resolvers = createResolversForLocales(
+                LOCALES,
+                locale -> new DosageAPIR4(FDSConfigR4.builder().locale(locale).build())
+        );
+
+        dosages = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            var repeat = new Timing.TimingRepeatComponent()
+                    .setFrequency(i)
+                    .setPeriod(1)
+                    .setPeriodUnit(Timing.UnitsOfTime.D)
+                    .setBounds(new Duration().setValue(10).setCode("d"));
+            dosages.add(List.of(new Dosage().setTiming(new Timing().setRepeat(repeat))));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public DosageResponseDto translate() {
+        return translateDosagesWithIssues(dosages, LOCALES, resolvers, options).block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(
+                new OptionsBuilder()
+                        .include(TranslationExecutorBenchmark.class.getSimpleName())
+                        .build()
+        ).run();
+    }
+}